@@ -14,6 +14,39 @@ Feature: Java-specific tests
   # nativeStringArray - String[] { "alpha", "beta", "gamma" }
   # integerValue - Integer object (42)
   # doubleValue - Double object (3.14)
+  # beanProfile - TestProfile bean (name "Carol", tags ["admin", "ops"], level 7, active)
+  # callingThread - bean whose name is the name of the thread reading it
+  # jsonResponse - Jackson JsonNode: user { name "Dana", age 41, score 9.5, active, manager null,
+  #   tags ["admin", "ops"] }, orders [{ id 1, total 10.5, items [{ sku "A-1" }] }, { id 2, total 20, items [] }]
+  # largeJsonFile - path of a generated file with 100000 orders { id, customer "customer-i", lines [{ sku "sku-(i % 50)" }] },
+  #   written the first time a scenario tagged @largeJson runs
+  # (src/test/resources/json/orders.json and events.json, whose top level is an array, are small files for the
+  # lazy JSON loading step)
+  # nativeDoubleArray - double[] { 1.0, 2.5, -3.0 }
+  # nativeLongArray - long[] { 9, 7, 7, 3 }
+  # prices - List of Integer 5, Double 7.5, Double 7.5, Long 12
+  # lazyIterable - Iterable producing 1000 maps { id: i, name: "lazy-i" } on demand
+  # nameStream - Stream of "alpha", "beta", "gamma" (single use)
+  # nameIterator - Iterator over "x", "y" (single use)
+  # repeatedTags - maps { tag: "a" }, { tag: "b" }, { tag: "a" }
+  # mixedOnes - maps { n: "1.0" } (a string) and { n: 1 } (an Integer)
+  # largeArray - 500 maps { id: i, name: "item-i", group: { code: "g(i % 7)" } }
+  # expressionCacheHits / expressionCacheMisses - suppliers reading the path cache counters
+  # resolvePlanCacheHits / resolvePlanCacheMisses - suppliers reading the step argument plan cache counters
+  # internalCounters - supplier of the Metrics counters (collected because the test run loads MetricsPlugin)
+  # counterBurst - function incrementing world.counter(name) 1000 times
+  # worldWriter - function that 1000 times increments world.counter(name) to n and sets "name_n" to n
+  # worldScanner - function (name, target) iterating over the world until the counter name reaches target
+  #   (up to 10 s), returning the number of passes
+  # clearWorld - runnable calling world.clear(); worldKeys - supplier of the world's keys
+  # readyLater - function setting the named prop to "ready" 150 ms after it is called, from a timer thread
+  #   (use it in @concurrentWorld scenarios)
+  # eventsLater - function setting the named prop to an empty list and adding { seq: i, type: "event-i" }
+  #   for i = 1..3 at 40 ms intervals
+  # sleeper - callable that sleeps for 30 s unless interrupted; @leaksJob checks after the scenario that it was
+  # The native arrays, jsonResponse, nameStream, nameIterator, counterBurst, worldWriter, worldScanner, clearWorld,
+  # worldKeys, readyLater, eventsLater and sleeper are set per scenario because they are mutable, single use or
+  # bound to the scenario's world. The rest are immutable and registered once in SharedFixtures
   # ========== Method Overloading Resolution (isMoreSpecific) ==========
 
   Scenario: Call overloaded method - Integer picks more specific than Number
@@ -84,3 +117,682 @@ Feature: Java-specific tests
   Scenario: Null array returns empty list
     Given I set "nullArr" to "{null}"
     Then "{nullArr}" is empty
+  # ========== Compiled Path Expression Cache ==========
+
+  Scenario: Repeated path expressions are served from the cache
+    Given I set "arr" to "{arrayWithObjects}"
+    Then "{arr}" is an array of objects with the following contents
+      | id | name   |
+      | 1  | first  |
+      | 2  | second |
+      | 3  | third  |
+    When I call "{expressionCacheHits}"
+    Then "{result}" should be greater than "0"
+    When I call "{expressionCacheMisses}"
+    Then "{result}" should be greater than "0"
+  # ========== Native Path Resolution ==========
+
+  Scenario: Resolve bean getters natively
+    Given I set "profile" to "{beanProfile}"
+    Then "{profile.name}" is "Carol"
+    And "{profile.level}" is "7"
+    And "{profile.active}" is true
+    And "{profile.tags[1]}" is "ops"
+
+  Scenario: Resolve length of a collection held by a bean
+    Given I set "profile" to "{beanProfile}"
+    Then "{profile.tags.length}" is "2"
+
+  Scenario: Resolve missing intermediate values as null
+    Given I set "nested" to "{nestedObject}"
+    Then "{nested.missing.level2}" is null
+    And "{nativeIntArray[5]}" is null
+    And "{nativeIntArray[2]}" is "30"
+  # ========== Cached Method Dispatch ==========
+
+  Scenario: Overload choice depends on whether a string argument is numeric
+    Given I set "calc" to "{testCalculator}"
+    When I call "{calc}" with "Describe" using argument "5"
+    Then "{result}" is "integer:5"
+    When I call "{calc}" with "Describe" using argument "abc"
+    Then "{result}" is "object:abc"
+    When I call "{calc}" with "Describe" using argument "7"
+    Then "{result}" is "integer:7"
+
+  Scenario: Call method with char primitive parameter using a digit
+    Given I set "calc" to "{testCalculator}"
+    When I call "{calc}" with "NextChar" using argument "5"
+    Then "{result}" is "6"
+
+  Scenario: Call a method declared on a public interface of a non-public class
+    When I call "{sampleStringArray}" with "size"
+    Then "{result}" is "3"
+  # ========== Indexed Array Matching ==========
+
+  Scenario: Match at least rows in a large array
+    Given I set "items" to "{largeArray}"
+    Then "{items}" is an array of objects with at least the following contents
+      | id  | name     | group.code |
+      | 499 | item-499 | g2         |
+      | 0   | item-0   | g0         |
+      | 250 | item-250 | g5         |
+
+  Scenario: Match at least rows in a large array using resolved values
+    Given I set "items" to "{largeArray}"
+    And I set "wanted" to "item-42"
+    Then "{items}" is an array of objects with at least the following contents
+      | name     |
+      | {wanted} |
+
+  Scenario: Large array doesn't contain rows
+    Given I set "items" to "{largeArray}"
+    Then "{items}" is an array of objects which doesn't contain any of
+      | id  | name     |
+      | 500 | item-500 |
+      | 1   | item-2   |
+      | 3   | {null}   |
+  # ========== Streaming Sequences ==========
+
+  Scenario: Match values of a native double array
+    Given I set "arr" to "{nativeDoubleArray}"
+    Then "{arr}" is an array of strings with the following values
+      | value |
+      | 1     |
+      | 2.5   |
+      | -3    |
+
+  Scenario: Match values of a native int array
+    Then "{nativeIntArray}" is an array of strings with the following values
+      | value |
+      | 10    |
+      | 20    |
+      | 30    |
+
+  Scenario: Match values of a Stream
+    Then "{nameStream}" is an array of strings with the following values
+      | value |
+      | alpha |
+      | beta  |
+      | gamma |
+
+  Scenario: Length of an Iterator
+    Then "{nameIterator}" is an array of objects with length "2"
+
+  Scenario: Match at least rows of a lazy Iterable
+    Then "{lazyIterable}" is an array of objects with at least the following contents
+      | id | name    |
+      | 3  | lazy-3  |
+      | 10 | lazy-10 |
+
+  Scenario: Lazy Iterable doesn't contain rows
+    Then "{lazyIterable}" is an array of objects which doesn't contain any of
+      | id   |
+      | 1000 |
+
+  Scenario: Length of a lazy Iterable
+    Then "{lazyIterable}" is an array of objects with length "1000"
+  # ========== Parallel Row Matching ==========
+  # @parallelMatching switches on scs.matching.parallel with a threshold of 2 elements; it sets
+  # system properties, so these scenarios are @isolated (never run alongside others in parallel mode)
+
+  @isolated @parallelMatching
+  Scenario: Exact match in parallel mode
+    Given I set "arr" to "{arrayWithObjects}"
+    Then "{arr}" is an array of objects with the following contents
+      | id | name   |
+      | 1  | first  |
+      | 2  | second |
+      | 3  | third  |
+
+  @isolated @parallelMatching
+  Scenario: Match at least rows in parallel mode
+    Given I set "items" to "{largeArray}"
+    Then "{items}" is an array of objects with at least the following contents
+      | id  | group.code |
+      | 498 | g1         |
+      | 7   | g0         |
+
+  @isolated @parallelMatching
+  Scenario: Doesn't contain rows in parallel mode
+    Given I set "items" to "{largeArray}"
+    Then "{items}" is an array of objects which doesn't contain any of
+      | id  | group.code |
+      | 498 | g2         |
+
+  # ========== Shared State Between Jobs ==========
+
+  Scenario: Concurrent jobs calling the invocation counter don't lose counts
+    Given "handler" is a invocation counter into "count"
+    When I start "{handler}" as "job1"
+    And I start "{handler}" as "job2"
+    And I start "{handler}" as "job3"
+    And I wait for job "job1"
+    And I wait for job "job2"
+    And I wait for job "job3"
+    Then "{count}" is "3"
+
+  Scenario: Concurrent jobs increment a shared counter atomically
+    Given "handler" is a invocation counter into "hits"
+    When I start "{counterBurst}" using argument "hits" as "burst1"
+    And I start "{counterBurst}" using argument "hits" as "burst2"
+    And I start "{counterBurst}" using argument "hits" as "burst3"
+    And I start "{counterBurst}" using argument "hits" as "burst4"
+    And I wait for job "burst1"
+    And I wait for job "burst2"
+    And I wait for job "burst3"
+    And I wait for job "burst4"
+    Then "{hits}" is "4000"
+    And "{burst4}" is "hits"
+
+  # @concurrentWorld holds this scenario's props in a concurrent map, as -Dscs.world.concurrent=true does
+
+  @concurrentWorld
+  Scenario: Jobs write to a concurrent world while the scenario iterates over it
+    When I start "{worldWriter}" using argument "writes" as "writer1"
+    And I start "{worldWriter}" using argument "writes" as "writer2"
+    And I start "{worldWriter}" using argument "writes" as "writer3"
+    And I start "{worldWriter}" using argument "writes" as "writer4"
+    And I call "{worldScanner}" using arguments "writes" and "4000"
+    Then "{result}" is not an error
+    And "{result}" should be greater than "0"
+    When I wait for job "writer1"
+    And I wait for job "writer2"
+    And I wait for job "writer3"
+    And I wait for job "writer4"
+    Then "{writes}" is "4000"
+    And "{writes_1}" is "1"
+    And "{writes_4000}" is "4000"
+    And "{writer4}" is "writes"
+
+  # ========== Job Executor ==========
+  # @boundedJobPool runs jobs on a fixed pool of 2 platform threads, and @rejectingJobPool on one
+  # thread with no queue. The executor is shared by every scenario, so scenarios that check its
+  # configuration or counters are @isolated
+
+  @isolated
+  Scenario: Job executor is readable from the world
+    Given "handler" is a invocation counter into "count"
+    When I start "{handler}" as "job1"
+    And I wait for job "job1"
+    Then "{jobExecutor.completed}" should be greater than "0"
+    And "{jobExecutor.kind}" is "common"
+
+  @isolated @boundedJobPool
+  Scenario: Jobs queue when a bounded pool is saturated
+    Given "slow" is an async function returning "done" after "200" ms
+    When I start "{slow}" as "job1"
+    And I start "{slow}" as "job2"
+    And I start "{slow}" as "job3"
+    Then "{jobExecutor.kind}" is "fixed"
+    And "{jobExecutor.maxThreads}" is "2"
+    And "{jobExecutor.peakQueued}" should be greater than "0"
+    When I wait for job "job1"
+    And I wait for job "job2"
+    And I wait for job "job3"
+    Then "{job3}" is "done"
+    And "{jobExecutor.peakActive}" is "2"
+    And "{jobExecutor.queued}" is "0"
+    And "{jobExecutor.saturated}" is false
+
+  @isolated @rejectingJobPool
+  Scenario: A job the pool rejects isn't counted
+    When I start "{sleeper}" as "busy"
+    And I wait for "{sleeper}" within "1000" ms
+    Then "{result}" is an error
+    And "{jobExecutor.submitted}" is "1"
+    And "{jobExecutor.active}" is eventually "1" within "1000" ms
+    And "{jobExecutor.queued}" is "0"
+
+  # ========== Aggregate Job Waits ==========
+
+  Scenario: Wait for all jobs with a name prefix
+    Given "fast" is an async function returning "quick" after "10" ms
+    And "slow" is an async function returning "steady" after "200" ms
+    When I start "{slow}" as "fetch-1"
+    And I start "{fast}" as "fetch-2"
+    And I start "{fast}" as "other"
+    And I wait for all jobs "fetch-*"
+    Then "{result}" is an array of strings with the following values
+      | value  |
+      | steady |
+      | quick  |
+    And "{resultJobs}" is an array of strings with the following values
+      | value   |
+      | fetch-1 |
+      | fetch-2 |
+    And "{fetch-1}" is "steady"
+
+  Scenario: Wait for all jobs in a list within a shared deadline
+    Given "fast" is an async function returning "quick" after "10" ms
+    When I start "{fast}" as "a"
+    And I start "{fast}" as "b"
+    And I start "{fast}" as "c"
+    And I wait for all jobs "c, a" within "5000" ms
+    Then "{result}" is an array of objects with length "2"
+    And "{resultJobs}" is an array of strings with the following values
+      | value |
+      | c     |
+      | a     |
+
+  Scenario: Wait for any job
+    Given "fast" is an async function returning "quick" after "10" ms
+    And "slow" is an async function returning "steady" after "500" ms
+    When I start "{slow}" as "race-1"
+    And I start "{fast}" as "race-2"
+    And I wait for any of jobs "race-*"
+    Then "{result}" is "quick"
+    And "{resultJobs}" is an array of strings with the following values
+      | value  |
+      | race-2 |
+
+  Scenario: Wait for the first N jobs
+    Given "fast" is an async function returning "quick" after "10" ms
+    And "slow" is an async function returning "steady" after "500" ms
+    When I start "{slow}" as "n-1"
+    And I start "{fast}" as "n-2"
+    And I start "{fast}" as "n-3"
+    And I wait for the first "2" of jobs "n-*" within "5000" ms
+    Then "{result}" is an array of strings with the following values
+      | value |
+      | quick |
+      | quick |
+
+  Scenario: Aggregate wait times out once for the whole group
+    Given "fast" is an async function returning "quick" after "10" ms
+    And "slow" is an async function returning "steady" after "2000" ms
+    When I start "{fast}" as "t-1"
+    And I start "{slow}" as "t-2"
+    And I wait for all jobs "t-*" within "200" ms
+    Then "{result}" is an error
+    And "{result}" contains "t-2"
+    And "{t-1}" is "quick"
+
+  # ========== Job Cancellation ==========
+
+  Scenario: Cancel a running job
+    When I start "{sleeper}" as "nap"
+    Then job "nap" is still running
+    When I cancel job "nap"
+    And I wait for job "nap"
+    Then "{nap}" is an error
+    And job "nap" completed within "1000" ms
+
+  Scenario: Cancelling a finished job keeps its result
+    Given "fast" is an async function returning "quick" after "10" ms
+    When I start "{fast}" as "done"
+    And I wait for job "done"
+    And I cancel job "done"
+    Then "{done}" is "quick"
+    And job "done" completed within "1000" ms
+
+  @leaksJob
+  Scenario: Jobs left running are cancelled when the scenario ends
+    When I start "{sleeper}" as "leaked"
+    And I wait for job "leaked" within "50" ms
+    Then "{leaked}" is an error
+    And job "leaked" is still running
+
+  @leaksJob
+  Scenario: A call that a wait gives up on is cancelled
+    When I wait for "{sleeper}" within "50" ms
+    Then "{result}" is an error
+
+  # ========== Load Generation ==========
+
+  Scenario: Call a function many times across workers
+    Given "handler" is a invocation counter into "count"
+    When I call "{handler}" "200" times using "4" workers
+    Then "{count}" is "200"
+    And "{load.calls}" is "200"
+    And "{load.workers}" is "4"
+    And "{load.errors}" is "0"
+    And "{load.throughput}" should be greater than "0"
+    And "{load.p99}" should be less than "1000"
+
+  Scenario: Call a method many times across workers
+    Given I set "calc" to "{testCalculator}"
+    When I call "{calc}" with "GetValue" "50" times using "2" workers
+    Then "{load.calls}" is "50"
+    And "{load.errors}" is "0"
+    And "{load.max}" should be greater than "0"
+
+  Scenario: Load counts errors
+    When I call "{errorThrowingFn}" "20" times using "3" workers
+    Then "{load.calls}" is "20"
+    And "{load.errors}" is "20"
+
+  Scenario: Load counts assertion failures as errors
+    When I call "{assertionFailingFn}" "20" times using "3" workers
+    Then "{load.calls}" is "20"
+    And "{load.errors}" is "20"
+
+  Scenario: Load latencies include async completion
+    Given "slow" is an async function returning "done" after "20" ms
+    When I call "{slow}" "4" times using "2" workers
+    Then "{load.p50}" should be greater than "19"
+    And "{load.durationMs}" should be greater than "39"
+
+  # ========== Elapsed Time ==========
+
+  Scenario: Calls record how long they took
+    Given "handler" is a invocation counter into "count"
+    When I call "{handler}"
+    Then "{lastCallElapsed}" should be less than "1000"
+    And the last call completed within "1000" ms
+
+  Scenario: Waits record async completion time
+    Given "slow" is an async function returning "done" after "50" ms
+    When I wait for "{slow}"
+    Then "{lastCallElapsed}" should be greater than "49"
+    And the last call completed within "5000" ms
+
+  Scenario: Jobs are timed from start to completion, not to when they are awaited
+    Given "fast" is an async function returning "quick" after "10" ms
+    When I start "{fast}" as "quickJob"
+    And we wait for a period of "200" ms
+    And I wait for job "quickJob"
+    Then job "quickJob" completed within "150" ms
+    And "{lastCallElapsed}" should be less than "150"
+    And "{lastCallElapsed}" should be greater than "9"
+
+  Scenario: Failed calls are timed too
+    When I call "{errorThrowingFn}"
+    Then "{result}" is an error
+    And the last call completed within "1000" ms
+
+  # ========== Metrics Plugin ==========
+
+  Scenario: Internal counters are collected while the metrics plugin is loaded
+    Given I set "arr" to "{arrayWithObjects}"
+    And "{arr}" is an array of objects with the following contents
+      | id | name   |
+      | 1  | first  |
+      | 2  | second |
+      | 3  | third  |
+    And I set "calc" to "{testCalculator}"
+    And I call "{calc}" with "GetValue"
+    When I call "{internalCounters}"
+    Then "{result.resolve}" should be greater than "0"
+    And "{result.path_native}" should be greater than "0"
+    And "{result.row_comparison}" should be greater than "2"
+    And "{result.method_dispatch}" should be greater than "0"
+
+  # ========== Shared Fixtures ==========
+
+  Scenario: Overwriting a shared fixture only affects this scenario
+    Given I set "sampleObject" to "changed"
+    Then "{sampleObject}" is "changed"
+
+  Scenario: Shared fixtures are intact in the next scenario
+    Then "{sampleObject.name}" is "John"
+
+  Scenario: Shared fixtures are listed with the world's own keys
+    When I call "{worldKeys}"
+    Then "{result}" contains "largeArray"
+    And "{result}" contains "nameStream"
+
+  Scenario: Clearing the world hides shared fixtures
+    When I call "{clearWorld}"
+    Then "{sampleObject}" is undefined
+    And "{largeArray}" is undefined
+
+  # ========== Step Argument Resolution Plans ==========
+
+  Scenario: Repeated step arguments reuse their resolution plan
+    Given I set "plan" to "{sampleObject}"
+    Then "{plan.name}" is "John"
+    And "{plan.name}" is "John"
+    When I call "{resolvePlanCacheHits}"
+    Then "{result}" should be greater than "0"
+    When I call "{resolvePlanCacheMisses}"
+    Then "{result}" should be greater than "0"
+
+  Scenario: Literal arguments resolve to constants
+    Given I set "n" to "{1e3}"
+    And I set "neg" to "{-2.5}"
+    Then "{n}" is "1000"
+    And "{neg}" is "-2.5"
+    And "{true}" is true
+    And "{null}" is null
+    And "plain text" is "plain text"
+
+  # ========== Typed Comparison ==========
+
+  Scenario: Numbers compare by value whatever their type
+    Then "{integerValue}" is "{42}"
+    And "{integerValue}" is "42.0"
+    And "{doubleValue}" is "3.140"
+    And "{typedValues.count}" is "{integerValue}"
+    And "{typedValues.active}" is "{true}"
+
+  Scenario: Table cells compare numerically with the element's fields
+    Given I set "items" to "{largeArray}"
+    Then "{items}" is an array of objects with at least the following contents
+      | id   | name    |
+      | {42} | item-42 |
+      | 7.0  | item-7  |
+    And "{items}" is an array of objects which doesn't contain any of
+      | id   | name    |
+      | 42.5 | item-42 |
+      | {7}  | item-8  |
+
+  Scenario: Strings still compare exactly
+    Given I set "code" to "007"
+    Then "{code}" is "007"
+    And "{typedValues.label}" is "hello"
+
+  # ========== Unordered Array Matching ==========
+
+  Scenario: Match rows in any order
+    Given I set "arr" to "{arrayWithObjects}"
+    Then "{arr}" is an array of objects with the following contents in any order
+      | id | name   |
+      | 3  | third  |
+      | 1  | first  |
+      | 2  | second |
+
+  Scenario: Repeated rows each need their own element
+    Then "{repeatedTags}" is an array of objects with the following contents in any order
+      | tag |
+      | a   |
+      | b   |
+      | a   |
+
+  Scenario: Elements that could match several rows are paired so that every row is matched
+    Then "{mixedOnes}" is an array of objects with the following contents in any order
+      | n   |
+      | 1.0 |
+      | 1   |
+
+  # ========== Numeric Aggregates ==========
+
+  Scenario: Aggregates of a native int array
+    Then "{nativeIntArray}" is sorted ascending
+    And the sum of "{nativeIntArray}" is "60"
+    And the minimum of "{nativeIntArray}" is "10"
+    And the maximum of "{nativeIntArray}" is "30"
+    And the mean of "{nativeIntArray}" is "20"
+    And all values of "{nativeIntArray}" are between "10" and "30"
+    And "{aggregate.count}" is "3"
+
+  Scenario: Aggregates of a native double array
+    When I aggregate "{nativeDoubleArray}"
+    Then "{aggregate.sum}" is "0.5"
+    And "{aggregate.min}" is "-3"
+    And "{aggregate.max}" is "2.5"
+    And "{aggregate.mean}" should be less than "0.17"
+    And all values of "{nativeDoubleArray}" are between "-3" and "{aggregate.max}"
+
+  Scenario: Sorted descending allows equal neighbours
+    Then "{nativeLongArray}" is sorted descending
+    And the sum of "{nativeLongArray}" is "26"
+    And the mean of "{nativeLongArray}" is "6.5"
+
+  Scenario: Aggregates of a list of mixed numbers
+    Then "{prices}" is sorted ascending
+    And the sum of "{prices}" is "32"
+    And the minimum of "{prices}" is "{5}"
+    And the maximum of "{prices}" is "12.0"
+    And "{aggregate.count}" is "4"
+
+  # ========== String Search ==========
+
+  Scenario: Report which phrases were found and where
+    Given I set "line" to "request 42 failed: TIMEOUT after retry"
+    Then "{line}" is a string containing one of
+      | value   |
+      | REFUSED |
+      | TIMEOUT |
+      | failed  |
+    And "{matches}" is an array of objects with the following contents
+      | pattern | start | end |
+      | failed  | 11    | 17  |
+      | TIMEOUT | 19    | 26  |
+
+  Scenario: Overlapping phrases are all found
+    Given I set "word" to "ushers"
+    Then "{word}" is a string containing one of
+      | value |
+      | he    |
+      | she   |
+      | hers  |
+      | his   |
+    And "{matches}" is an array of objects with the following contents in any order
+      | pattern | start |
+      | she     | 1     |
+      | he      | 2     |
+      | hers    | 2     |
+
+  Scenario: Match a regular expression anywhere in a string
+    Given I set "line" to "request 42 failed: TIMEOUT after retry"
+    Then "{line}" matches "\d+ failed"
+    And "{matches[0].start}" is "8"
+    And "{matches[0].end}" is "17"
+
+  Scenario: Match one of several regular expressions
+    Given I set "line" to "request 42 failed: TIMEOUT after retry"
+    Then "{line}" matches one of
+      | value          |
+      | ^response      |
+      | TIME(OUT\|UP)  |
+    And "{matches}" is an array of objects with the following contents
+      | pattern       | start |
+      | TIME(OUT\|UP) | 19    |
+
+  # ========== Jackson JSON Trees ==========
+
+  Scenario: Resolve paths into a JsonNode
+    Given I set "response" to "{jsonResponse}"
+    Then "{response.user.name}" is "Dana"
+    And "{response.user.age}" is "{41}"
+    And "{response.user.score}" is "9.5"
+    And "{response.user.active}" is true
+    And "{response.user.manager}" is null
+    And "{response.user.nickname}" is undefined
+    And "{response.user.tags[1]}" is "ops"
+    And "{response.orders[0].items[0].sku}" is "A-1"
+    And "{response.orders[5].id}" is undefined
+
+  Scenario: Lengths of JSON arrays and objects
+    Given I set "response" to "{jsonResponse}"
+    Then "{response.user.tags.length}" is "2"
+    And "{response.orders.length}" is "2"
+    And "{response.user.length}" is "6"
+    And "{response.orders[1].items}" is empty
+
+  Scenario: Array assertions on a JSON array
+    Given I set "response" to "{jsonResponse}"
+    Then "{response.orders}" is an array of objects with the following contents
+      | id | total | items.length |
+      | 1  | 10.5  | 1            |
+      | 2  | 20    | 0            |
+    And "{response.orders}" is an array of objects with at least the following contents
+      | id | items[0].sku |
+      | 1  | A-1          |
+    And "{response.orders}" is an array of objects which doesn't contain any of
+      | id |
+      | 3  |
+    And "{response.orders}" is an array of objects with length "2"
+    And "{response.user.tags}" is an array of strings with the following values
+      | value |
+      | admin |
+      | ops   |
+    And "{response.user}" is an object with the following contents
+      | name | tags[0] |
+      | Dana | admin   |
+
+  # ========== Lazy JSON Files ==========
+
+  Scenario: Read fields from a lazily loaded JSON file
+    Given I lazily load JSON file "src/test/resources/json/orders.json" into "doc"
+    Then "{doc.customer.name}" is "Erin"
+    And "{doc.customer.since}" is "2019"
+    And "{doc.orders.length}" is "3"
+    And "{doc.orders[2].lines[1].sku}" is "C-3"
+    And "{doc.orders[1].lines}" is empty
+    And "{doc.notes}" is null
+    And "{doc.missing}" is undefined
+
+  Scenario: Array assertions on a lazily loaded JSON file
+    Given I lazily load JSON file "src/test/resources/json/orders.json" into "doc"
+    Then "{doc.orders}" is an array of objects with the following contents
+      | id | total | paid  | lines.length |
+      | 1  | 10.5  | true  | 1            |
+      | 2  | 20    | false | 0            |
+      | 3  | 7.25  | true  | 2            |
+    And "{doc.orders}" is an array of objects which doesn't contain any of
+      | id | paid |
+      | 2  | true |
+
+  Scenario: A lazily loaded JSON file whose top level is an array
+    Given I lazily load JSON file "src/test/resources/json/events.json" into "events"
+    Then "{events}" is an array of objects with the following contents
+      | seq | type    |
+      | 1   | created |
+      | 2   | shipped |
+
+  @largeJson
+  Scenario: Look up one element of a large JSON file
+    Given I lazily load JSON file "{largeJsonFile}" into "doc"
+    Then "{doc.orders.length}" is "100000"
+    And "{doc.orders[99999].customer}" is "customer-99999"
+    And "{doc.orders[4321].lines[0].sku}" is "sku-21"
+    And "{doc.orders}" is an array of objects with at least the following contents
+      | id    | customer       |
+      | 77777 | customer-77777 |
+
+  # ========== Eventually Assertions ==========
+
+  # readyLater writes to the world from a timer thread, so the world has to be concurrent
+  @concurrentWorld
+  Scenario: A value that becomes ready is eventually equal
+    Given I set "status" to "pending"
+    When I call "{readyLater}" using argument "status"
+    Then "{status}" is eventually "ready" within "2000" ms
+    And "{eventually.polls}" should be greater than "1"
+    And "{eventually.durationMs}" should be less than "2000"
+
+  Scenario: Eventually checks run on the scenario's thread
+    Given I set "scenarioThread" to "{callingThread.name}"
+    Then "{callingThread.name}" is eventually "{scenarioThread}" within "500" ms
+    And "{eventually.polls}" is "1"
+
+  Scenario: A value that already holds passes on the first poll
+    Given I set "status" to "ready"
+    Then "{status}" is eventually "ready" within "2000" ms
+    And "{eventually.polls}" is "1"
+
+  Scenario: Arrays that fill up over time
+    When I call "{eventsLater}" using argument "events"
+    Then "{events}" is eventually an array of objects with length "3" within "2000" ms
+    And "{events}" is eventually an array of objects with the following contents within "2000" ms
+      | seq | type    |
+      | 1   | event-1 |
+      | 2   | event-2 |
+      | 3   | event-3 |
+
+  Scenario: Waiting for one element to arrive
+    When I call "{eventsLater}" using argument "events"
+    Then "{events}" is eventually an array of objects with at least the following contents within "2000" ms
+      | type    |
+      | event-2 |
@@ -0,0 +1,68 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import io.cucumber.datatable.DataTable;
+import io.cucumber.datatable.DataTableTypeRegistry;
+import io.cucumber.datatable.DataTableTypeRegistryTableConverter;
+
+/**
+ * Test data shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private static final DataTable.TableConverter converter =
+            new DataTableTypeRegistryTableConverter(new DataTableTypeRegistry(Locale.ENGLISH));
+
+    private Fixtures() {
+    }
+
+    /**
+     * A list of {@code {id, name, address: {city}}} maps.
+     */
+    static List<Object> people(int size) {
+        List<Object> people = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> address = new HashMap<>();
+            address.put("city", "city-" + (i % 100));
+            Map<String, Object> person = new HashMap<>();
+            person.put("id", i);
+            person.put("name", "person-" + i);
+            person.put("address", address);
+            people.add(person);
+        }
+        return people;
+    }
+
+    /**
+     * A table matching the given rows of {@link #people}.
+     */
+    static DataTable peopleTable(int from, int to) {
+        List<List<String>> cells = new ArrayList<>();
+        cells.add(Arrays.asList("id", "name", "address.city"));
+        for (int i = from; i < to; i++) {
+            cells.add(Arrays.asList(String.valueOf(i), "person-" + i, "city-" + (i % 100)));
+        }
+        return DataTable.create(cells, converter);
+    }
+
+    /**
+     * Four levels of nested maps ending in {@code "found"} at {@code a.b.c.d}.
+     */
+    static Map<String, Object> deeplyNested() {
+        Map<String, Object> d = new HashMap<>();
+        d.put("d", "found");
+        Map<String, Object> c = new HashMap<>();
+        c.put("c", d);
+        Map<String, Object> b = new HashMap<>();
+        b.put("b", c);
+        Map<String, Object> a = new HashMap<>();
+        a.put("a", b);
+        return a;
+    }
+}
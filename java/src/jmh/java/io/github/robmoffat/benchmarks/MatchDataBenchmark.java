@@ -0,0 +1,73 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.cucumber.datatable.DataTable;
+import io.github.robmoffat.support.MatchingUtils;
+import io.github.robmoffat.world.PropsWorld;
+
+/**
+ * Array matching against a data table, from 10 to 100k elements.
+ * <p>
+ * {@code matchDataAtLeast} looks for the last ten elements, which is the worst
+ * case for a linear scan. {@code matchDataInAnyOrder} matches the whole table
+ * against the elements shuffled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class MatchDataBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private PropsWorld world;
+    private List<Object> actual;
+    private List<Object> shuffled;
+    private DataTable all;
+    private DataTable lastTen;
+
+    @Setup
+    public void setup() {
+        world = new PropsWorld();
+        actual = Fixtures.people(size);
+        shuffled = new ArrayList<>(actual);
+        Collections.shuffle(shuffled, new Random(42));
+        all = Fixtures.peopleTable(0, size);
+        lastTen = Fixtures.peopleTable(Math.max(0, size - 10), size);
+    }
+
+    @Benchmark
+    public void matchData() {
+        MatchingUtils.matchData(world, actual, all);
+    }
+
+    @Benchmark
+    public void matchDataAtLeast() {
+        MatchingUtils.matchDataAtLeast(world, actual, lastTen);
+    }
+
+    @Benchmark
+    public void matchDataInAnyOrder() {
+        MatchingUtils.matchDataInAnyOrder(world, shuffled, all);
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.robmoffat.steps.GenericSteps;
+import io.github.robmoffat.world.PropsWorld;
+
+/**
+ * Overload resolution and reflective invocation behind the {@code I call} steps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class MethodDispatchBenchmark {
+
+    public static class Service {
+        public String describe(Object o) { return "object"; }
+        public String describe(Number n) { return "number"; }
+        public String describe(Integer i) { return "integer"; }
+        public long add(long a, long b) { return a + b; }
+    }
+
+    private PropsWorld world;
+    private GenericSteps steps;
+    private final Object[] integerArg = { 42 };
+
+    @Setup
+    public void setup() {
+        world = new PropsWorld();
+        world.set("service", new Service());
+        world.set("answer", 42);
+        steps = new GenericSteps(world);
+    }
+
+    @Benchmark
+    public Object findMethod() {
+        return GenericSteps.findMethod(Service.class, "describe", integerArg);
+    }
+
+    @Benchmark
+    public Object invokeOverloaded() {
+        steps.iCallWithArgument("{service}", "describe", "{answer}");
+        return world.get("result");
+    }
+
+    @Benchmark
+    public Object invokeWithStringConversion() {
+        steps.iCallWithTwoArguments("{service}", "add", "40", "2");
+        return world.get("result");
+    }
+}
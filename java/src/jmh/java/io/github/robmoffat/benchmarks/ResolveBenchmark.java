@@ -0,0 +1,63 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.github.robmoffat.support.MatchingUtils;
+import io.github.robmoffat.world.PropsWorld;
+
+/**
+ * {@link MatchingUtils#handleResolve} for literals, world lookups and deep paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class ResolveBenchmark {
+
+    @Param({
+        "plain string",
+        "{null}",
+        "{true}",
+        "{42}",
+        "{value}",
+        "{deeplyNested.a.b.c.d}",
+        "{people[7].address.city}",
+        "{people.length}",
+        "{json.people[7].address.city}",
+        "{json.people.length}"
+    })
+    public String expression;
+
+    private PropsWorld world;
+
+    @Setup
+    public void setup() {
+        world = new PropsWorld();
+        world.set("value", "hello");
+        world.set("deeplyNested", Fixtures.deeplyNested());
+        world.set("people", Fixtures.people(10));
+        world.set("json", new ObjectMapper().valueToTree(Map.of("people", Fixtures.people(10))));
+    }
+
+    @Benchmark
+    public Object handleResolve() {
+        return MatchingUtils.handleResolve(expression, world);
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.robmoffat.support.MatchingUtils;
+import io.github.robmoffat.world.PropsWorld;
+
+/**
+ * {@link MatchingUtils#doesRowMatch} for a matching and a non-matching row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class RowMatchBenchmark {
+
+    private PropsWorld world;
+    private Object item;
+    private Map<String, String> matchingRow;
+    private Map<String, String> failingRow;
+
+    @Setup
+    public void setup() {
+        world = new PropsWorld();
+        item = Fixtures.people(4).get(3);
+        matchingRow = Fixtures.peopleTable(3, 4).asMaps().get(0);
+        failingRow = Fixtures.peopleTable(2, 3).asMaps().get(0);
+    }
+
+    @Benchmark
+    public boolean matchingRow() {
+        return MatchingUtils.doesRowMatch(world, matchingRow, item);
+    }
+
+    @Benchmark
+    public boolean failingRow() {
+        return MatchingUtils.doesRowMatch(world, failingRow, item);
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.robmoffat.support.StringSearch;
+
+/**
+ * Looking for any of 10 to 1000 phrases, none of which occur, in a 5 MB log:
+ * {@link StringSearch#findPhrases} against one {@link String#contains} per phrase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class StringSearchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int phrases;
+
+    private String log;
+    private List<String> missing;
+
+    @Setup
+    public void setup() {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 5_000_000) {
+            text.append("2026-10-17 INFO request ").append(text.length()).append(" handled ok\n");
+        }
+        log = text.toString();
+        missing = new ArrayList<>();
+        for (int i = 0; i < phrases; i++) {
+            missing.add("ERROR code " + i);
+        }
+    }
+
+    @Benchmark
+    public boolean automaton() {
+        return !StringSearch.findPhrases(log, missing).isEmpty();
+    }
+
+    @Benchmark
+    public boolean containsEach() {
+        for (String phrase : missing) {
+            if (log.contains(phrase)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.robmoffat.steps.GenericSteps;
+import io.github.robmoffat.world.PropsWorld;
+
+/**
+ * Array assertions over primitive arrays (formerly copied and boxed by {@code toList}),
+ * and numeric aggregates over them and over the same numbers boxed in a list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class ToListBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private GenericSteps steps;
+    private String length;
+    private String sum;
+
+    @Setup
+    public void setup() {
+        PropsWorld world = new PropsWorld();
+        int[] ints = new int[size];
+        long[] longs = new long[size];
+        double[] doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = i;
+            longs[i] = i;
+            doubles[i] = i;
+        }
+        world.set("ints", ints);
+        world.set("longs", longs);
+        world.set("doubles", doubles);
+        world.set("boxed", Arrays.stream(ints).boxed().collect(Collectors.toList()));
+        steps = new GenericSteps(world);
+        length = String.valueOf(size);
+        sum = String.valueOf((long) size * (size - 1) / 2);
+    }
+
+    @Benchmark
+    public void intArrayLength() {
+        steps.isAnArrayOfObjectsWithLength("{ints}", length);
+    }
+
+    @Benchmark
+    public void longArrayLength() {
+        steps.isAnArrayOfObjectsWithLength("{longs}", length);
+    }
+
+    @Benchmark
+    public void doubleArrayLength() {
+        steps.isAnArrayOfObjectsWithLength("{doubles}", length);
+    }
+
+    @Benchmark
+    public void intArraySortedAscending() {
+        steps.isSortedAscending("{ints}");
+    }
+
+    @Benchmark
+    public void longArraySum() {
+        steps.sumIs("{longs}", sum);
+    }
+
+    @Benchmark
+    public void doubleArraySum() {
+        steps.sumIs("{doubles}", sum);
+    }
+
+    @Benchmark
+    public void boxedListSum() {
+        steps.sumIs("{boxed}", sum);
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.robmoffat.benchmarks;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.robmoffat.support.Values;
+
+/**
+ * {@link Values#equivalent} against comparing {@link String#valueOf} forms, for the
+ * value pairs row matching sees most. Run with {@code -prof gc} to compare allocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class ValueComparisonBenchmark {
+
+    private Object longValue = 12345L;
+    private Object doubleValue = 12345.0;
+    private Object text = "12345";
+    private Object name = "person-12345";
+    private Object otherName = "person-12345";
+
+    @Benchmark
+    public boolean typedLongText() {
+        return Values.equivalent(longValue, text);
+    }
+
+    @Benchmark
+    public boolean stringLongText() {
+        return Objects.equals(String.valueOf(longValue), String.valueOf(text));
+    }
+
+    @Benchmark
+    public boolean typedLongDouble() {
+        return Values.equivalent(longValue, doubleValue);
+    }
+
+    @Benchmark
+    public boolean stringLongDouble() {
+        return Objects.equals(String.valueOf(longValue), String.valueOf(doubleValue));
+    }
+
+    @Benchmark
+    public boolean typedStrings() {
+        return Values.equivalent(name, otherName);
+    }
+}
@@ -1,32 +1,59 @@
 package io.github.robmoffat.steps;
 
+import static io.github.robmoffat.support.MatchingUtils.describeMismatch;
 import static io.github.robmoffat.support.MatchingUtils.doesRowMatch;
 import static io.github.robmoffat.support.MatchingUtils.handleResolve;
 import static io.github.robmoffat.support.MatchingUtils.matchData;
 import static io.github.robmoffat.support.MatchingUtils.matchDataAtLeast;
 import static io.github.robmoffat.support.MatchingUtils.matchDataDoesntContain;
+import static io.github.robmoffat.support.MatchingUtils.matchDataInAnyOrder;
+import static io.github.robmoffat.support.MatchingUtils.matchValues;
+import static io.github.robmoffat.support.MatchingUtils.truncate;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import java.lang.reflect.Array;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.databind.node.ContainerNode;
+
+import io.github.robmoffat.support.Eventually;
+import io.github.robmoffat.support.JobExecutor;
+import io.github.robmoffat.support.LatencyHistogram;
+import io.github.robmoffat.support.LazyJson;
+import io.github.robmoffat.support.Metrics;
+import io.github.robmoffat.support.Numbers;
+import io.github.robmoffat.support.NumericSummary;
+import io.github.robmoffat.support.Sequence;
+import io.github.robmoffat.support.StringSearch;
+import io.github.robmoffat.support.Values;
 import io.github.robmoffat.world.PropsWorld;
 
 import io.cucumber.datatable.DataTable;
+import io.cucumber.java.After;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
@@ -36,11 +63,21 @@ import io.cucumber.java.en.When;
  */
 public class GenericSteps {
 
+    private static final long DEFAULT_JOB_TIMEOUT_MS = 30_000;
+    private static final String LAST_CALL_ELAPSED = "lastCallElapsed";
+    private static final String EVENTUALLY = "eventually";
+    private static final String AGGREGATE = "aggregate";
+    private static final String MATCHES = "matches";
+    /** Runs before other {@code @After} hooks, which may reconfigure the job pool. */
+    private static final int CANCEL_JOBS_ORDER = 100_000;
+
     private final PropsWorld world;
-    private final Map<String, CompletableFuture<Object>> jobs = new HashMap<>();
+    private final Map<String, CompletableFuture<Object>> jobs = new LinkedHashMap<>();
+    private final Map<String, JobRun> jobRuns = new HashMap<>();
 
     public GenericSteps(PropsWorld world) {
         this.world = world;
+        world.set("jobExecutor", JobExecutor.get());
     }
 
     // Functional interfaces for multi-arg functions
@@ -60,7 +97,7 @@ public class GenericSteps {
     public void iCallWith(String field, String fnName) {
         try {
             Object object = handleResolve(field, world);
-            Object result = invokeMethod(object, fnName);
+            Object result = timed(() -> invokeMethod(object, fnName));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -72,7 +109,7 @@ public class GenericSteps {
         try {
             Object object = handleResolve(field, world);
             Object paramValue = handleResolve(param, world);
-            Object result = invokeMethod(object, fnName, paramValue);
+            Object result = timed(() -> invokeMethod(object, fnName, paramValue));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -83,7 +120,9 @@ public class GenericSteps {
     public void iCallWithTwoArguments(String field, String fnName, String param1, String param2) {
         try {
             Object object = handleResolve(field, world);
-            Object result = invokeMethod(object, fnName, handleResolve(param1, world), handleResolve(param2, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object result = timed(() -> invokeMethod(object, fnName, param1Value, param2Value));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -94,8 +133,10 @@ public class GenericSteps {
     public void iCallWithThreeArguments(String field, String fnName, String param1, String param2, String param3) {
         try {
             Object object = handleResolve(field, world);
-            Object result = invokeMethod(object, fnName,
-                    handleResolve(param1, world), handleResolve(param2, world), handleResolve(param3, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object param3Value = handleResolve(param3, world);
+            Object result = timed(() -> invokeMethod(object, fnName, param1Value, param2Value, param3Value));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -106,9 +147,11 @@ public class GenericSteps {
     public void iCallWithFourArguments(String field, String fnName, String param1, String param2, String param3, String param4) {
         try {
             Object object = handleResolve(field, world);
-            Object result = invokeMethod(object, fnName,
-                    handleResolve(param1, world), handleResolve(param2, world), 
-                    handleResolve(param3, world), handleResolve(param4, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object param3Value = handleResolve(param3, world);
+            Object param4Value = handleResolve(param4, world);
+            Object result = timed(() -> invokeMethod(object, fnName, param1Value, param2Value, param3Value, param4Value));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -121,7 +164,7 @@ public class GenericSteps {
     public void iCallFunction(String fnName) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctional(fn);
+            Object result = timed(() -> callFunctional(fn));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -133,7 +176,7 @@ public class GenericSteps {
         try {
             Object fn = handleResolve(fnName, world);
             Object paramVal = handleResolve(param, world);
-            Object result = callFunctionalWithArgs(fn, paramVal);
+            Object result = timed(() -> callFunctionalWithArgs(fn, paramVal));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -144,7 +187,9 @@ public class GenericSteps {
     public void iCallFunctionWithTwoArguments(String fnName, String param1, String param2) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctionalWithArgs(fn, handleResolve(param1, world), handleResolve(param2, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object result = timed(() -> callFunctionalWithArgs(fn, param1Value, param2Value));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -155,8 +200,10 @@ public class GenericSteps {
     public void iCallFunctionWithThreeArguments(String fnName, String param1, String param2, String param3) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctionalWithArgs(fn,
-                    handleResolve(param1, world), handleResolve(param2, world), handleResolve(param3, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object param3Value = handleResolve(param3, world);
+            Object result = timed(() -> callFunctionalWithArgs(fn, param1Value, param2Value, param3Value));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -167,9 +214,11 @@ public class GenericSteps {
     public void iCallFunctionWithFourArguments(String fnName, String param1, String param2, String param3, String param4) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctionalWithArgs(fn,
-                    handleResolve(param1, world), handleResolve(param2, world), 
-                    handleResolve(param3, world), handleResolve(param4, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object param3Value = handleResolve(param3, world);
+            Object param4Value = handleResolve(param4, world);
+            Object result = timed(() -> callFunctionalWithArgs(fn, param1Value, param2Value, param3Value, param4Value));
             world.set("result", result);
         } catch (Exception error) {
             world.set("result", error);
@@ -187,40 +236,92 @@ public class GenericSteps {
 
     @Then("{string} is an array of objects with the following contents")
     public void isAnArrayOfObjectsWithContents(String field, DataTable dt) {
-        matchData(world, toList(handleResolve(field, world)), dt);
+        matchData(world, Sequence.of(handleResolve(field, world)), dt);
+    }
+
+    @Then("{string} is an array of objects with the following contents in any order")
+    public void isAnArrayOfObjectsWithContentsInAnyOrder(String field, DataTable dt) {
+        matchDataInAnyOrder(world, Sequence.of(handleResolve(field, world)), dt);
     }
 
     @Then("{string} is an array of objects with at least the following contents")
     public void isAnArrayOfObjectsWithAtLeastContents(String field, DataTable dt) {
-        matchDataAtLeast(world, toList(handleResolve(field, world)), dt);
+        matchDataAtLeast(world, Sequence.of(handleResolve(field, world)), dt);
     }
 
     @Then("{string} is an array of objects which doesn't contain any of")
     public void isAnArrayOfObjectsWhichDoesntContainAnyOf(String field, DataTable dt) {
-        matchDataDoesntContain(world, toList(handleResolve(field, world)), dt);
+        matchDataDoesntContain(world, Sequence.of(handleResolve(field, world)), dt);
     }
 
     @Then("{string} is an array of objects with length {string}")
     public void isAnArrayOfObjectsWithLength(String field, String lengthField) {
-        List<Object> data = toList(handleResolve(field, world));
+        Sequence data = Sequence.of(handleResolve(field, world));
         Object resolved = handleResolve(lengthField, world);
-        assertEquals(Integer.parseInt(String.valueOf(resolved)), data.size());
+        assertEquals(Integer.parseInt(String.valueOf(resolved)), data.count());
     }
 
     @Then("{string} is an array of strings with the following values")
     public void isAnArrayOfStringsWithValues(String field, DataTable dt) {
-        List<Object> data = toList(handleResolve(field, world));
-        List<Map<String, Object>> values = data.stream()
-                .map(s -> Map.<String, Object>of("value", s))
-                .collect(Collectors.toList());
-        matchData(world, values, dt);
+        matchValues(world, Sequence.of(handleResolve(field, world)), dt);
     }
 
     @Then("{string} is an object with the following contents")
     public void isAnObjectWithContents(String field, DataTable params) {
         List<Map<String, String>> table = params.asMaps();
         Object data = handleResolve(field, world);
-        assertTrue(doesRowMatch(world, table.get(0), data));
+        assertTrue(doesRowMatch(world, table.get(0), data),
+                () -> "Object doesn't match: " + describeMismatch(world, table.get(0), data));
+    }
+
+    // ========== Numeric Aggregates ==========
+    // Each step takes one pass over the numbers (primitive arrays are read without
+    // boxing) and stores count, sum, min, max and mean in aggregate.
+
+    @When("I aggregate {string}")
+    public void aggregate(String field) {
+        summarise(field);
+    }
+
+    @Then("{string} is sorted ascending")
+    public void isSortedAscending(String field) {
+        long position = summarise(field).firstDescent();
+        assertTrue(position < 0, () -> "Element " + position + " is smaller than the one before it");
+    }
+
+    @Then("{string} is sorted descending")
+    public void isSortedDescending(String field) {
+        long position = summarise(field).firstAscent();
+        assertTrue(position < 0, () -> "Element " + position + " is larger than the one before it");
+    }
+
+    @Then("the sum of {string} is {string}")
+    public void sumIs(String field, String value) {
+        assertAggregate("sum", summarise(field).sum(), value);
+    }
+
+    @Then("the minimum of {string} is {string}")
+    public void minimumIs(String field, String value) {
+        assertAggregate("minimum", summarise(field).min(), value);
+    }
+
+    @Then("the maximum of {string} is {string}")
+    public void maximumIs(String field, String value) {
+        assertAggregate("maximum", summarise(field).max(), value);
+    }
+
+    @Then("the mean of {string} is {string}")
+    public void meanIs(String field, String value) {
+        assertAggregate("mean", summarise(field).mean(), value);
+    }
+
+    @Then("all values of {string} are between {string} and {string}")
+    public void allValuesAreBetween(String field, String low, String high) {
+        NumericSummary summary = summarise(field);
+        double lowValue = toDouble(handleResolve(low, world));
+        double highValue = toDouble(handleResolve(high, world));
+        assertTrue(summary.isBetween(lowValue, highValue), () -> "Expected every value between " + lowValue
+                + " and " + highValue + ", but they range from " + summary.min() + " to " + summary.max());
     }
 
     // ========== Value Assertions ==========
@@ -257,6 +358,8 @@ public class GenericSteps {
             assertTrue(((List<?>) data).isEmpty());
         } else if (data instanceof String) {
             assertTrue(((String) data).isEmpty());
+        } else if (data instanceof ContainerNode) {
+            assertTrue(((ContainerNode<?>) data).isEmpty());
         } else if (data == null) {
             // null is considered empty
         } else {
@@ -294,10 +397,27 @@ public class GenericSteps {
     @Then("{string} is a string containing one of")
     public void isAStringContainingOneOf(String field, DataTable dt) {
         String actual = String.valueOf(handleResolve(field, world));
-        List<List<String>> rows = dt.cells();
-        List<String> values = rows.stream().skip(1).map(r -> r.get(0)).collect(Collectors.toList());
-        boolean found = values.stream().anyMatch(actual::contains);
-        assertTrue(found, "Expected '" + actual + "' to contain one of: " + values);
+        List<String> values = firstColumn(dt);
+        List<StringSearch.Match> found = StringSearch.findPhrases(actual, values);
+        assertTrue(!found.isEmpty(), () -> truncate("Expected '" + actual + "' to contain one of: " + values));
+        recordMatches(found);
+    }
+
+    @Then("{string} matches {string}")
+    public void matches(String field, String regex) {
+        String actual = String.valueOf(handleResolve(field, world));
+        List<StringSearch.Match> found = StringSearch.findPatterns(actual, Collections.singletonList(regex));
+        assertTrue(!found.isEmpty(), () -> truncate("Expected '" + actual + "' to match " + regex));
+        recordMatches(found);
+    }
+
+    @Then("{string} matches one of")
+    public void matchesOneOf(String field, DataTable dt) {
+        String actual = String.valueOf(handleResolve(field, world));
+        List<String> regexes = firstColumn(dt);
+        List<StringSearch.Match> found = StringSearch.findPatterns(actual, regexes);
+        assertTrue(!found.isEmpty(), () -> truncate("Expected '" + actual + "' to match one of: " + regexes));
+        recordMatches(found);
     }
 
     @Then("{string} should be greater than {string}")
@@ -318,11 +438,8 @@ public class GenericSteps {
 
     @Given("{string} is a invocation counter into {string}")
     public void isAnInvocationCounter(String handlerName, String counterField) {
-        world.set(counterField, 0);
-        world.set(handlerName, (Runnable) () -> {
-            int amount = (Integer) world.get(counterField);
-            world.set(counterField, amount + 1);
-        });
+        world.set(counterField, new AtomicLong());
+        world.set(handlerName, (Runnable) () -> world.counter(counterField).incrementAndGet());
     }
 
     @Given("{string} is an async function returning {string}")
@@ -336,15 +453,15 @@ public class GenericSteps {
     public void isAnAsyncFunctionReturningAfterDelay(String fnName, String valueField, String delayMs) {
         Object value = handleResolve(valueField, world);
         long delay = Long.parseLong(delayMs);
+        // completes from the JDK's delay scheduler rather than parking a pool thread in sleep()
         world.set(fnName, (Supplier<CompletableFuture<Object>>) () ->
-                CompletableFuture.supplyAsync(() -> {
-                    try {
-                        Thread.sleep(delay);
-                        return value;
-                    } catch (InterruptedException e) {
-                        throw new RuntimeException(e);
-                    }
-                }));
+                new CompletableFuture<Object>().completeOnTimeout(value, delay, TimeUnit.MILLISECONDS));
+    }
+
+    // Loads the file as lazily parsed maps and lists; see LazyJson
+    @Given("I lazily load JSON file {string} into {string}")
+    public void iLazilyLoadJsonFile(String file, String field) throws IOException {
+        world.set(field, LazyJson.load(Paths.get(String.valueOf(handleResolve(file, world)))));
     }
 
     // Setter step: I set "field" to "value"
@@ -358,7 +475,9 @@ public class GenericSteps {
     public void fieldIs(String field, String value) {
         Object actual = handleResolve(field, world);
         Object expected = handleResolve(value, world);
-        assertEquals(String.valueOf(expected), String.valueOf(actual));
+        if (!Values.equivalent(actual, expected)) {
+            assertEquals(String.valueOf(expected), String.valueOf(actual));
+        }
     }
 
     @Given("we wait for a period of {string} ms")
@@ -370,44 +489,20 @@ public class GenericSteps {
 
     @When("I start {string} as {string}")
     public void startJob(String fnName, String jobName) {
-        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                Object fn = handleResolve(fnName, world);
-                return callFunctional(fn);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
-        jobs.put(jobName, future);
+        submitJob(jobName, () -> callFunctional(handleResolve(fnName, world)));
     }
 
     @When("I start {string} using argument {string} as {string}")
     public void startJobWithArgument(String fnName, String param, String jobName) {
         Object paramVal = handleResolve(param, world);
-        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                Object fn = handleResolve(fnName, world);
-                return callFunctionalWithArgs(fn, paramVal);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
-        jobs.put(jobName, future);
+        submitJob(jobName, () -> callFunctionalWithArgs(handleResolve(fnName, world), paramVal));
     }
 
     @When("I start {string} using arguments {string} and {string} as {string}")
     public void startJobWithTwoArguments(String fnName, String param1, String param2, String jobName) {
         Object p1 = handleResolve(param1, world);
         Object p2 = handleResolve(param2, world);
-        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                Object fn = handleResolve(fnName, world);
-                return callFunctionalWithArgs(fn, p1, p2);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
-        jobs.put(jobName, future);
+        submitJob(jobName, () -> callFunctionalWithArgs(handleResolve(fnName, world), p1, p2));
     }
 
     @When("I start {string} using arguments {string}, {string}, and {string} as {string}")
@@ -415,15 +510,7 @@ public class GenericSteps {
         Object p1 = handleResolve(param1, world);
         Object p2 = handleResolve(param2, world);
         Object p3 = handleResolve(param3, world);
-        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                Object fn = handleResolve(fnName, world);
-                return callFunctionalWithArgs(fn, p1, p2, p3);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
-        jobs.put(jobName, future);
+        submitJob(jobName, () -> callFunctionalWithArgs(handleResolve(fnName, world), p1, p2, p3));
     }
 
     @When("I start {string} using arguments {string}, {string}, {string}, and {string} as {string}")
@@ -432,27 +519,20 @@ public class GenericSteps {
         Object p2 = handleResolve(param2, world);
         Object p3 = handleResolve(param3, world);
         Object p4 = handleResolve(param4, world);
-        CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
-            try {
-                Object fn = handleResolve(fnName, world);
-                return callFunctionalWithArgs(fn, p1, p2, p3, p4);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        });
-        jobs.put(jobName, future);
+        submitJob(jobName, () -> callFunctionalWithArgs(handleResolve(fnName, world), p1, p2, p3, p4));
     }
 
     @Then("I wait for job {string}")
     public void waitForJob(String jobName) {
         try {
-            Object result = jobs.get(jobName).get(30, TimeUnit.SECONDS);
+            Object result = jobs.get(jobName).get(DEFAULT_JOB_TIMEOUT_MS, TimeUnit.MILLISECONDS);
             world.set("result", result);
             world.set(jobName, result);
         } catch (Exception e) {
             world.set("result", e);
             world.set(jobName, e);
         }
+        recordJobElapsed(jobName);
     }
 
     @Then("I wait for job {string} within {string} ms")
@@ -466,13 +546,112 @@ public class GenericSteps {
             world.set("result", e);
             world.set(jobName, e);
         }
+        recordJobElapsed(jobName);
+    }
+
+    // ========== Elapsed Time Assertions ==========
+    // The call and wait steps store how long the call took, in milliseconds, as
+    // lastCallElapsed. Jobs are timed from when they were started to when they finished.
+
+    @Then("the last call completed within {string} ms")
+    public void lastCallCompletedWithin(String ms) {
+        Object elapsed = world.get(LAST_CALL_ELAPSED);
+        assertNotNull(elapsed, "No call has been timed yet");
+        double limit = toDouble(handleResolve(ms, world));
+        assertTrue(toDouble(elapsed) <= limit,
+                "Expected the last call to complete within " + limit + " ms, but it took " + elapsed + " ms");
+    }
+
+    @Then("job {string} completed within {string} ms")
+    public void jobCompletedWithin(String jobName, String ms) {
+        JobRun run = jobRun(jobName);
+        assertTrue(run.isFinished(), "Job " + jobName + " hasn't finished");
+        double limit = toDouble(handleResolve(ms, world));
+        double elapsed = run.elapsedNanos() / 1e6;
+        assertTrue(elapsed <= limit,
+                "Expected job " + jobName + " to complete within " + limit + " ms, but it took " + elapsed + " ms");
+    }
+
+    // ========== Job Cancellation ==========
+    // Jobs still running when a scenario ends are cancelled, their threads interrupted,
+    // and each one logged with how long it had been running. Set scs.jobs.failOnLeak
+    // to fail the scenario as well.
+
+    @When("I cancel job {string}")
+    public void cancelJob(String jobName) {
+        JobRun run = jobRun(jobName);
+        jobs.get(jobName).cancel(true);
+        run.cancel();
+    }
+
+    @Then("job {string} is still running")
+    public void jobIsStillRunning(String jobName) {
+        JobRun run = jobRun(jobName);
+        assertFalse(run.isFinished(), "Job " + jobName + " finished after " + run.elapsedNanos() / 1e6 + " ms");
+    }
+
+    @After(order = CANCEL_JOBS_ORDER)
+    public void cancelOutstandingJobs() {
+        List<String> leaked = new ArrayList<>();
+        jobRuns.forEach((name, run) -> {
+            if (!run.isFinished()) {
+                double elapsed = run.elapsedNanos() / 1e6;
+                jobs.get(name).cancel(true);
+                run.cancel();
+                Metrics.increment(Metrics.Counter.LEAKED_JOB);
+                leaked.add(String.format("%s (%.0f ms)", name, elapsed));
+            }
+        });
+        if (leaked.isEmpty()) {
+            return;
+        }
+        String message = "Cancelled jobs still running at the end of the scenario: " + String.join(", ", leaked);
+        world.log(message);
+        if (Boolean.getBoolean("scs.jobs.failOnLeak")) {
+            throw new AssertionError(message);
+        }
+    }
+
+    // ========== Aggregate Job Waits ==========
+    // A job selector is either a name prefix ending in * ("fetch-*") or a
+    // comma-separated list of job names ("a, b, c"). Each wait has one deadline
+    // shared by all the jobs it covers.
+
+    @Then("I wait for all jobs {string}")
+    public void waitForAllJobs(String selector) {
+        awaitAllJobs(selector, DEFAULT_JOB_TIMEOUT_MS);
+    }
+
+    @Then("I wait for all jobs {string} within {string} ms")
+    public void waitForAllJobsWithTimeout(String selector, String timeoutMs) {
+        awaitAllJobs(selector, Long.parseLong(timeoutMs));
+    }
+
+    @Then("I wait for any of jobs {string}")
+    public void waitForAnyJob(String selector) {
+        awaitFirstJobs(selector, 1, DEFAULT_JOB_TIMEOUT_MS, true);
+    }
+
+    @Then("I wait for any of jobs {string} within {string} ms")
+    public void waitForAnyJobWithTimeout(String selector, String timeoutMs) {
+        awaitFirstJobs(selector, 1, Long.parseLong(timeoutMs), true);
+    }
+
+    @Then("I wait for the first {string} of jobs {string}")
+    public void waitForFirstJobs(String count, String selector) {
+        awaitFirstJobs(selector, Integer.parseInt(count), DEFAULT_JOB_TIMEOUT_MS, false);
+    }
+
+    @Then("I wait for the first {string} of jobs {string} within {string} ms")
+    public void waitForFirstJobsWithTimeout(String count, String selector, String timeoutMs) {
+        awaitFirstJobs(selector, Integer.parseInt(count), Long.parseLong(timeoutMs), false);
     }
 
     @When("I wait for {string}")
     public void iWaitFor(String fnName) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctional(fn);
+            Object result = timed(() -> callFunctional(fn));
             world.set("result", result);
         } catch (Exception e) {
             world.set("result", e);
@@ -481,28 +660,40 @@ public class GenericSteps {
 
     @When("I wait for {string} within {string} ms")
     public void iWaitForWithTimeout(String fnName, String timeoutMs) {
+        Object fn;
+        long ms;
         try {
-            Object fn = handleResolve(fnName, world);
-            long ms = Long.parseLong(timeoutMs);
-            CompletableFuture<Object> future = CompletableFuture.supplyAsync(() -> {
-                try {
-                    return callFunctional(fn);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            });
+            fn = handleResolve(fnName, world);
+            ms = Long.parseLong(timeoutMs);
+        } catch (Exception e) {
+            world.set("result", e);
+            return;
+        }
+        long begin = System.nanoTime();
+        JobRun run = new JobRun();
+        CompletableFuture<Object> future = null;
+        try {
+            future = runTracked(run, () -> callFunctional(fn));
             Object result = future.get(ms, TimeUnit.MILLISECONDS);
             world.set("result", result);
         } catch (Exception e) {
             world.set("result", e);
+        } finally {
+            // don't leave a call we gave up on running into the next scenario
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+                run.cancel();
+            }
         }
+        recordElapsed(System.nanoTime() - begin);
     }
 
     @When("I wait for {string} using argument {string}")
     public void iWaitForWithArgument(String fnName, String param) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctionalWithArgs(fn, handleResolve(param, world));
+            Object paramValue = handleResolve(param, world);
+            Object result = timed(() -> callFunctionalWithArgs(fn, paramValue));
             world.set("result", result);
         } catch (Exception e) {
             world.set("result", e);
@@ -513,7 +704,9 @@ public class GenericSteps {
     public void iWaitForWithTwoArguments(String fnName, String param1, String param2) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctionalWithArgs(fn, handleResolve(param1, world), handleResolve(param2, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object result = timed(() -> callFunctionalWithArgs(fn, param1Value, param2Value));
             world.set("result", result);
         } catch (Exception e) {
             world.set("result", e);
@@ -524,8 +717,10 @@ public class GenericSteps {
     public void iWaitForWithThreeArguments(String fnName, String param1, String param2, String param3) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctionalWithArgs(fn, 
-                    handleResolve(param1, world), handleResolve(param2, world), handleResolve(param3, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object param3Value = handleResolve(param3, world);
+            Object result = timed(() -> callFunctionalWithArgs(fn, param1Value, param2Value, param3Value));
             world.set("result", result);
         } catch (Exception e) {
             world.set("result", e);
@@ -536,17 +731,412 @@ public class GenericSteps {
     public void iWaitForWithFourArguments(String fnName, String param1, String param2, String param3, String param4) {
         try {
             Object fn = handleResolve(fnName, world);
-            Object result = callFunctionalWithArgs(fn, 
-                    handleResolve(param1, world), handleResolve(param2, world), 
-                    handleResolve(param3, world), handleResolve(param4, world));
+            Object param1Value = handleResolve(param1, world);
+            Object param2Value = handleResolve(param2, world);
+            Object param3Value = handleResolve(param3, world);
+            Object param4Value = handleResolve(param4, world);
+            Object result = timed(() -> callFunctionalWithArgs(fn, param1Value, param2Value, param3Value, param4Value));
             world.set("result", result);
         } catch (Exception e) {
             world.set("result", e);
         }
     }
 
+    // ========== Eventually Steps ==========
+    // Re-check until the assertion passes, instead of sleeping for a fixed time first
+
+    @Then("{string} is eventually {string} within {string} ms")
+    public void fieldIsEventually(String field, String value, String timeoutMs) throws InterruptedException {
+        eventually(() -> fieldIs(field, value), timeoutMs);
+    }
+
+    @Then("{string} is eventually an array of objects with the following contents within {string} ms")
+    public void isEventuallyAnArrayOfObjectsWithContents(String field, String timeoutMs, DataTable dt)
+            throws InterruptedException {
+        eventually(() -> isAnArrayOfObjectsWithContents(field, dt), timeoutMs);
+    }
+
+    @Then("{string} is eventually an array of objects with at least the following contents within {string} ms")
+    public void isEventuallyAnArrayOfObjectsWithAtLeastContents(String field, String timeoutMs, DataTable dt)
+            throws InterruptedException {
+        eventually(() -> isAnArrayOfObjectsWithAtLeastContents(field, dt), timeoutMs);
+    }
+
+    @Then("{string} is eventually an array of objects with length {string} within {string} ms")
+    public void isEventuallyAnArrayOfObjectsWithLength(String field, String lengthField, String timeoutMs)
+            throws InterruptedException {
+        eventually(() -> isAnArrayOfObjectsWithLength(field, lengthField), timeoutMs);
+    }
+
+    // ========== Load Generation ==========
+
+    @When("I call {string} {string} times using {string} workers")
+    public void iCallRepeatedly(String fnName, String calls, String workers) throws InterruptedException {
+        Object fn = handleResolve(fnName, world);
+        runLoad(() -> callFunctional(fn), Integer.parseInt(calls), Integer.parseInt(workers));
+    }
+
+    @When("I call {string} with {string} {string} times using {string} workers")
+    public void iCallMethodRepeatedly(String field, String methodName, String calls, String workers)
+            throws InterruptedException {
+        Object object = handleResolve(field, world);
+        runLoad(() -> invokeMethod(object, methodName), Integer.parseInt(calls), Integer.parseInt(workers));
+    }
+
     // ========== Helper Methods ==========
 
+    /**
+     * Run a call, storing how long it took as {@code lastCallElapsed}, even if it throws.
+     */
+    private Object timed(Callable<Object> call) throws Exception {
+        long begin = System.nanoTime();
+        try {
+            return call.call();
+        } finally {
+            recordElapsed(System.nanoTime() - begin);
+        }
+    }
+
+    /**
+     * Poll the check until it passes, logging how many polls it took and storing
+     * them as {@code eventually.polls} and {@code eventually.durationMs}.
+     */
+    private void eventually(Runnable check, String timeoutMs) throws InterruptedException {
+        long timeout = Long.parseLong(String.valueOf(handleResolve(timeoutMs, world)));
+        Eventually.Result result;
+        try {
+            result = Eventually.await(() -> world.withoutLogging(check), timeout);
+        } catch (AssertionError e) {
+            world.log(e.getMessage());
+            throw e;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("polls", result.getPolls());
+        summary.put("durationMs", result.getElapsedMillis());
+        world.set(EVENTUALLY, summary);
+        world.log(String.format("Passed after %d polls in %.1f ms", result.getPolls(), result.getElapsedMillis()));
+    }
+
+    private static List<String> firstColumn(DataTable dt) {
+        return dt.cells().stream().skip(1).map(r -> r.get(0)).collect(Collectors.toList());
+    }
+
+    /**
+     * Log what was found where, and store it in {@code matches} as a list of
+     * {@code pattern}, {@code start}, {@code end}.
+     */
+    private void recordMatches(List<StringSearch.Match> found) {
+        List<Map<String, Object>> stored = new ArrayList<>(found.size());
+        for (StringSearch.Match match : found) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("pattern", match.getPattern());
+            entry.put("start", match.getStart());
+            entry.put("end", match.getEnd());
+            stored.add(entry);
+        }
+        world.set(MATCHES, stored);
+        world.log(truncate("Found " + found));
+    }
+
+    private NumericSummary summarise(String field) {
+        NumericSummary summary = NumericSummary.of(handleResolve(field, world));
+        world.set(AGGREGATE, summary.toMap());
+        return summary;
+    }
+
+    private void assertAggregate(String name, Number actual, String value) {
+        Object expected = handleResolve(value, world);
+        assertTrue(Values.equivalent(actual, expected),
+                () -> "Expected the " + name + " to be " + expected + " but was " + actual);
+    }
+
+    private void recordElapsed(long nanos) {
+        world.set(LAST_CALL_ELAPSED, nanos / 1e6);
+    }
+
+    private void recordJobElapsed(String jobName) {
+        JobRun run = jobRuns.get(jobName);
+        if (run != null) {
+            recordElapsed(run.elapsedNanos());
+        }
+    }
+
+    private JobRun jobRun(String jobName) {
+        JobRun run = jobRuns.get(jobName);
+        assertNotNull(run, "No job has been started as " + jobName);
+        return run;
+    }
+
+    private void submitJob(String jobName, Callable<Object> job) {
+        JobRun run = new JobRun();
+        jobs.put(jobName, runTracked(run, job));
+        jobRuns.put(jobName, run);
+    }
+
+    /**
+     * Run the job on the job executor, recording in {@code run} the thread running it,
+     * so that it can be interrupted.
+     */
+    private static CompletableFuture<Object> runTracked(JobRun run, Callable<Object> job) {
+        return CompletableFuture.supplyAsync(() -> {
+            run.begin();
+            try {
+                return job.call();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                run.finish();
+            }
+        }, JobExecutor.get());
+    }
+
+    /**
+     * When a job started and, once it has, finished, and the thread running it in between.
+     */
+    private static final class JobRun {
+        private final long started = System.nanoTime();
+        private volatile long finished;
+        private volatile boolean done;
+        private Thread runner;
+        private boolean cancelled;
+
+        synchronized void begin() {
+            if (cancelled) {
+                throw new CancellationException();
+            }
+            runner = Thread.currentThread();
+        }
+
+        synchronized void finish() {
+            runner = null;
+            if (cancelled) {
+                // don't hand the interrupt on to the pool thread's next task
+                Thread.interrupted();
+            } else {
+                finished = System.nanoTime();
+                done = true;
+            }
+        }
+
+        /**
+         * Interrupt the job if it's running, and count it as finished now.
+         */
+        synchronized void cancel() {
+            if (done || cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+            finished = System.nanoTime();
+            done = true;
+        }
+
+        boolean isFinished() {
+            return done;
+        }
+
+        /**
+         * Start to finish, or start to now if the job is still running.
+         */
+        long elapsedNanos() {
+            return (done ? finished : System.nanoTime()) - started;
+        }
+    }
+
+    /**
+     * Make {@code calls} calls, shared between {@code workers} threads that each start
+     * the next call as soon as their previous one returns, and store a summary in
+     * {@code load}: calls, workers, errors, durationMs, throughput (calls per second)
+     * and the min, mean, p50, p90, p99 and max latencies in milliseconds.
+     */
+    private void runLoad(Callable<Object> call, int calls, int workers) throws InterruptedException {
+        if (calls < 1 || workers < 1) {
+            throw new IllegalArgumentException("Calls and workers must be positive: " + calls + ", " + workers);
+        }
+        AtomicInteger remaining = new AtomicInteger(calls);
+        LatencyHistogram[] histograms = new LatencyHistogram[workers];
+        long[] errors = new long[workers];
+        Thread[] threads = new Thread[workers];
+        CountDownLatch start = new CountDownLatch(1);
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            histograms[w] = new LatencyHistogram();
+            threads[w] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (remaining.getAndDecrement() > 0) {
+                    long begin = System.nanoTime();
+                    try {
+                        call.call();
+                    } catch (Throwable e) {
+                        // assertion failures and other errors count too, so every call is accounted for
+                        errors[worker]++;
+                    }
+                    histograms[worker].record(System.nanoTime() - begin);
+                }
+            }, "scs-load-" + w);
+            threads[w].setDaemon(true);
+            threads[w].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        LatencyHistogram latencies = new LatencyHistogram();
+        long errorCount = 0;
+        for (int w = 0; w < workers; w++) {
+            latencies.add(histograms[w]);
+            errorCount += errors[w];
+        }
+        Map<String, Object> load = new LinkedHashMap<>();
+        load.put("calls", latencies.count());
+        load.put("workers", workers);
+        load.put("errors", errorCount);
+        load.put("durationMs", elapsed / 1e6);
+        load.put("throughput", latencies.count() / (elapsed / 1e9));
+        load.put("min", latencies.min() / 1e6);
+        load.put("mean", latencies.mean() / 1e6);
+        load.put("p50", latencies.percentile(50) / 1e6);
+        load.put("p90", latencies.percentile(90) / 1e6);
+        load.put("p99", latencies.percentile(99) / 1e6);
+        load.put("max", latencies.max() / 1e6);
+        world.set("load", load);
+    }
+
+    /**
+     * Wait for every selected job, then store each outcome under its job name, the
+     * outcomes in selector order as a list in {@code result}, and the job names in
+     * {@code resultJobs}.
+     */
+    private void awaitAllJobs(String selector, long timeoutMs) {
+        Map<String, CompletableFuture<Object>> selected = selectJobs(selector);
+        CompletableFuture<?>[] settled = selected.values().stream()
+                .map(f -> f.handle((value, error) -> null))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(settled).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            storeFinishedJobs(selected);
+            world.set("result", timeoutOrInterrupt(e, selected, timeoutMs));
+            return;
+        }
+        List<Object> results = new ArrayList<>(selected.size());
+        selected.forEach((name, future) -> {
+            Object outcome = outcomeOf(future);
+            world.set(name, outcome);
+            results.add(outcome);
+        });
+        world.set("result", results);
+        world.set("resultJobs", new ArrayList<>(selected.keySet()));
+    }
+
+    /**
+     * Wait for the first {@code count} selected jobs to finish, and store their outcomes
+     * in completion order, as {@link #awaitAllJobs} does. With {@code single}, {@code result}
+     * holds the one outcome rather than a list.
+     */
+    private void awaitFirstJobs(String selector, int count, long timeoutMs, boolean single) {
+        Map<String, CompletableFuture<Object>> selected = selectJobs(selector);
+        if (count < 1 || count > selected.size()) {
+            throw new IllegalArgumentException(
+                    "Cannot wait for " + count + " of the " + selected.size() + " jobs matching " + selector);
+        }
+        BlockingQueue<String> finished = new LinkedBlockingQueue<>();
+        selected.forEach((name, future) -> future.whenComplete((value, error) -> finished.add(name)));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        List<String> names = new ArrayList<>(count);
+        List<Object> results = new ArrayList<>(count);
+        try {
+            while (names.size() < count) {
+                String name = finished.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (name == null) {
+                    throw new TimeoutException();
+                }
+                Object outcome = outcomeOf(selected.get(name));
+                world.set(name, outcome);
+                names.add(name);
+                results.add(outcome);
+            }
+        } catch (Exception e) {
+            world.set("result", timeoutOrInterrupt(e, selected, timeoutMs));
+            return;
+        }
+        world.set("result", single ? results.get(0) : results);
+        world.set("resultJobs", names);
+    }
+
+    /**
+     * The started jobs a selector refers to, in the order they were started
+     * (for a prefix) or listed.
+     */
+    private Map<String, CompletableFuture<Object>> selectJobs(String selector) {
+        Map<String, CompletableFuture<Object>> selected = new LinkedHashMap<>();
+        String trimmed = selector.trim();
+        if (trimmed.endsWith("*")) {
+            String prefix = trimmed.substring(0, trimmed.length() - 1);
+            jobs.forEach((name, future) -> {
+                if (name.startsWith(prefix)) {
+                    selected.put(name, future);
+                }
+            });
+        } else {
+            for (String name : trimmed.split("\\s*,\\s*")) {
+                CompletableFuture<Object> future = jobs.get(name);
+                if (future == null) {
+                    throw new IllegalArgumentException("No job has been started as " + name);
+                }
+                selected.put(name, future);
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("No jobs have been started matching " + selector);
+        }
+        return selected;
+    }
+
+    private void storeFinishedJobs(Map<String, CompletableFuture<Object>> selected) {
+        selected.forEach((name, future) -> {
+            if (future.isDone()) {
+                world.set(name, outcomeOf(future));
+            }
+        });
+    }
+
+    private static Object timeoutOrInterrupt(Exception e, Map<String, CompletableFuture<Object>> selected,
+            long timeoutMs) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+        String unfinished = selected.entrySet().stream()
+                .filter(entry -> !entry.getValue().isDone())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.joining(", "));
+        return new TimeoutException("Jobs not finished within " + timeoutMs + " ms: " + unfinished);
+    }
+
+    /**
+     * The value of a finished job, or the exception it failed with, as {@code I wait for job} stores them.
+     */
+    private static Object outcomeOf(CompletableFuture<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
     private Object callFunctional(Object fn) throws Exception {
         if (fn instanceof Runnable) {
             ((Runnable) fn).run();
@@ -564,16 +1154,15 @@ public class GenericSteps {
     }
 
     private Object callFunctionalWithArgs(Object fn, Object... args) throws Exception {
-        Method invokeMethod = findMethod(fn.getClass(), "apply", args);
-        if (invokeMethod == null) {
-            invokeMethod = findMethod(fn.getClass(), "accept", args);
+        MethodDispatch dispatch = MethodDispatch.lookup(fn.getClass(), "apply", args);
+        if (dispatch == null) {
+            dispatch = MethodDispatch.lookup(fn.getClass(), "accept", args);
         }
-        if (invokeMethod == null) {
-            invokeMethod = findMethod(fn.getClass(), "call", args);
+        if (dispatch == null) {
+            dispatch = MethodDispatch.lookup(fn.getClass(), "call", args);
         }
-        if (invokeMethod != null) {
-            invokeMethod.setAccessible(true);
-            Object result = invokeMethod.invoke(fn, args);
+        if (dispatch != null) {
+            Object result = dispatch.invoke(fn, args);
             return resolvePromise(result);
         }
         throw new IllegalArgumentException("Cannot call " + fn.getClass().getName() + " with " + args.length + " args");
@@ -590,61 +1179,14 @@ public class GenericSteps {
     }
 
     private Object invokeMethod(Object target, String methodName, Object... args) throws Exception {
-        Method method = findMethod(target.getClass(), methodName, args);
-        if (method == null) {
+        MethodDispatch dispatch = MethodDispatch.lookup(target.getClass(), methodName, args);
+        if (dispatch == null) {
             throw new NoSuchMethodException("Method not found: " + methodName);
         }
-        method.setAccessible(true);
-        // Convert args to match parameter types
-        Object[] convertedArgs = convertArgs(method.getParameterTypes(), args);
-        Object result = method.invoke(target, convertedArgs);
+        Object result = dispatch.invoke(target, args);
         return resolvePromise(result);
     }
 
-    private Object[] convertArgs(Class<?>[] paramTypes, Object[] args) {
-        Object[] converted = new Object[args.length];
-        for (int i = 0; i < args.length; i++) {
-            converted[i] = convertArg(paramTypes[i], args[i]);
-        }
-        return converted;
-    }
-
-    private Object convertArg(Class<?> targetType, Object arg) {
-        if (arg == null) return null;
-        
-        // If already compatible, return as-is
-        if (wrap(targetType).isAssignableFrom(arg.getClass())) {
-            return arg;
-        }
-        
-        // Handle numeric conversions
-        Number num = null;
-        if (arg instanceof Number) {
-            num = (Number) arg;
-        } else if (arg instanceof String) {
-            try {
-                num = Double.parseDouble((String) arg);
-            } catch (NumberFormatException e) {
-                // Not a number, check for char
-                if ((targetType == char.class || targetType == Character.class) && ((String) arg).length() == 1) {
-                    return ((String) arg).charAt(0);
-                }
-                return arg;
-            }
-        }
-        
-        if (num != null) {
-            if (targetType == int.class || targetType == Integer.class) return num.intValue();
-            if (targetType == long.class || targetType == Long.class) return num.longValue();
-            if (targetType == double.class || targetType == Double.class) return num.doubleValue();
-            if (targetType == float.class || targetType == Float.class) return num.floatValue();
-            if (targetType == short.class || targetType == Short.class) return num.shortValue();
-            if (targetType == byte.class || targetType == Byte.class) return num.byteValue();
-        }
-        
-        return arg;
-    }
-
     public static Method findMethod(Class<?> targetClass, String name, Object... args) {
         Method bestMatch = null;
         for (Method method : targetClass.getMethods()) {
@@ -674,12 +1216,8 @@ public class GenericSteps {
             if (args[i] instanceof Number && isNumericType(paramTypes[i])) continue;
             // Handle String to numeric conversion
             if (args[i] instanceof String && isNumericType(paramTypes[i])) {
-                try {
-                    Double.parseDouble((String) args[i]);
-                    continue;
-                } catch (NumberFormatException e) {
-                    return false;
-                }
+                if (Numbers.isNumeric((String) args[i])) continue;
+                return false;
             }
             // Handle String to char conversion
             if (args[i] instanceof String && (paramTypes[i] == char.class || paramTypes[i] == Character.class)) {
@@ -706,7 +1244,7 @@ public class GenericSteps {
         return false;
     }
 
-    private static Class<?> wrap(Class<?> type) {
+    static Class<?> wrap(Class<?> type) {
         if (!type.isPrimitive()) return type;
         if (type == int.class) return Integer.class;
         if (type == long.class) return Long.class;
@@ -734,7 +1272,7 @@ public class GenericSteps {
         if (value instanceof String) {
             String s = (String) value;
             if (s.isEmpty()) return false;
-            try { return Double.parseDouble(s) != 0; } catch (NumberFormatException ignored) {}
+            if (Numbers.isNumeric(s)) return Double.parseDouble(s) != 0;
             return !s.equalsIgnoreCase("false") && !s.equalsIgnoreCase("null");
         }
         return true;
@@ -743,17 +1281,4 @@ public class GenericSteps {
     private double toDouble(Object value) {
         return Double.parseDouble(String.valueOf(value));
     }
-
-    @SuppressWarnings("unchecked")
-    private List<Object> toList(Object obj) {
-        if (obj == null) return Collections.emptyList();
-        if (obj instanceof List) return (List<Object>) obj;
-        if (obj.getClass().isArray()) {
-            int length = Array.getLength(obj);
-            List<Object> list = new ArrayList<>(length);
-            for (int i = 0; i < length; i++) list.add(Array.get(obj, i));
-            return list;
-        }
-        throw new IllegalArgumentException("Expected array or List, but got: " + obj.getClass().getName());
-    }
 }
@@ -0,0 +1,233 @@
+package io.github.robmoffat.steps;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+import io.github.robmoffat.support.BoundedCache;
+import io.github.robmoffat.support.Metrics;
+import io.github.robmoffat.support.Numbers;
+
+/**
+ * A resolved method overload plus the conversions needed to call it.
+ * <p>
+ * Resolution is cached per (class, method name, argument shape), where the shape
+ * of an argument is its runtime class, or for strings whether they parse as a
+ * number and/or a single character. Those are the only properties
+ * {@link GenericSteps#findMethod} looks at, so the cached choice is always the
+ * one a fresh scan would make.
+ */
+final class MethodDispatch {
+
+    private static final MethodDispatch NONE = new MethodDispatch(null, null);
+
+    private static final BoundedCache<Key, MethodDispatch> cache =
+            new BoundedCache<>(BoundedCache.sizeFromProperty("scs.dispatchCache.size", 1024));
+
+    private enum StringShape { PLAIN, NUMERIC, CHAR, NUMERIC_CHAR }
+
+    private enum Conversion { NONE, TO_INT, TO_LONG, TO_DOUBLE, TO_FLOAT, TO_SHORT, TO_BYTE, TO_CHAR }
+
+    private final MethodHandle handle;
+    private final Conversion[] plan;
+
+    private MethodDispatch(MethodHandle handle, Conversion[] plan) {
+        this.handle = handle;
+        this.plan = plan;
+    }
+
+    /**
+     * Find (or reuse) the best overload of {@code name} for these arguments, or null.
+     */
+    static MethodDispatch lookup(Class<?> targetClass, String name, Object[] args) {
+        Object[] shape = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            shape[i] = shapeOf(args[i]);
+        }
+        MethodDispatch dispatch = cache.get(new Key(targetClass, name, shape), k -> resolve(k, args));
+        return dispatch == NONE ? null : dispatch;
+    }
+
+    /**
+     * Convert the arguments according to the plan and invoke the method.
+     * Exceptions thrown by the method are wrapped in {@link InvocationTargetException},
+     * as {@link Method#invoke} would.
+     */
+    Object invoke(Object target, Object[] args) throws InvocationTargetException {
+        Metrics.increment(Metrics.Counter.METHOD_DISPATCH);
+        Object[] converted = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            converted[i] = convert(plan[i], args[i]);
+        }
+        try {
+            return (Object) handle.invokeExact(target, converted);
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    private static MethodDispatch resolve(Key key, Object[] args) {
+        Method method = GenericSteps.findMethod(key.type, key.name, args);
+        if (method == null) {
+            return NONE;
+        }
+        Class<?>[] paramTypes = method.getParameterTypes();
+        Conversion[] plan = new Conversion[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            plan[i] = conversionFor(paramTypes[i], args[i], key.shape[i]);
+        }
+        try {
+            return new MethodDispatch(toSpreadHandle(method), plan);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + method, e);
+        }
+    }
+
+    private static Object shapeOf(Object arg) {
+        if (arg == null) {
+            return null;
+        }
+        if (arg instanceof String) {
+            String s = (String) arg;
+            boolean numeric = Numbers.isNumeric(s);
+            boolean single = s.length() == 1;
+            if (numeric) {
+                return single ? StringShape.NUMERIC_CHAR : StringShape.NUMERIC;
+            }
+            return single ? StringShape.CHAR : StringShape.PLAIN;
+        }
+        return arg.getClass();
+    }
+
+    private static Conversion conversionFor(Class<?> paramType, Object arg, Object shape) {
+        if (arg == null || GenericSteps.wrap(paramType).isAssignableFrom(arg.getClass())) {
+            return Conversion.NONE;
+        }
+        boolean numeric = arg instanceof Number
+                || shape == StringShape.NUMERIC || shape == StringShape.NUMERIC_CHAR;
+        if (paramType == char.class || paramType == Character.class) {
+            return shape == StringShape.CHAR || shape == StringShape.NUMERIC_CHAR
+                    ? Conversion.TO_CHAR : Conversion.NONE;
+        }
+        if (!numeric) return Conversion.NONE;
+        if (paramType == int.class || paramType == Integer.class) return Conversion.TO_INT;
+        if (paramType == long.class || paramType == Long.class) return Conversion.TO_LONG;
+        if (paramType == double.class || paramType == Double.class) return Conversion.TO_DOUBLE;
+        if (paramType == float.class || paramType == Float.class) return Conversion.TO_FLOAT;
+        if (paramType == short.class || paramType == Short.class) return Conversion.TO_SHORT;
+        if (paramType == byte.class || paramType == Byte.class) return Conversion.TO_BYTE;
+        return Conversion.NONE;
+    }
+
+    private static Object convert(Conversion conversion, Object arg) {
+        if (conversion == Conversion.NONE) {
+            return arg;
+        }
+        if (conversion == Conversion.TO_CHAR) {
+            return ((String) arg).charAt(0);
+        }
+        Number num = arg instanceof Number ? (Number) arg : Double.valueOf((String) arg);
+        switch (conversion) {
+            case TO_INT: return num.intValue();
+            case TO_LONG: return num.longValue();
+            case TO_DOUBLE: return num.doubleValue();
+            case TO_FLOAT: return num.floatValue();
+            case TO_SHORT: return num.shortValue();
+            case TO_BYTE: return num.byteValue();
+            default: return arg;
+        }
+    }
+
+    /**
+     * Build a {@code (Object target, Object[] args) -> Object} handle for the method.
+     */
+    private static MethodHandle toSpreadHandle(Method method) throws IllegalAccessException {
+        MethodHandle handle = null;
+        Method visible = publicDeclaration(method);
+        if (visible != null) {
+            try {
+                handle = MethodHandles.publicLookup().unreflect(visible);
+            } catch (IllegalAccessException e) {
+                // declared on a non-public superclass; fall through to setAccessible
+            }
+        }
+        if (handle == null) {
+            method.setAccessible(true);
+            handle = MethodHandles.lookup().unreflect(method);
+        }
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        int arity = method.getParameterCount();
+        return handle.asType(MethodType.genericMethodType(arity + 1))
+                .asSpreader(Object[].class, arity)
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    /**
+     * The same method as declared on a public class or interface, if there is one,
+     * so lambdas and JDK-internal implementations can be called without setAccessible.
+     */
+    private static Method publicDeclaration(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        if (Modifier.isPublic(owner.getModifiers()) && Modifier.isPublic(method.getModifiers())) {
+            return method;
+        }
+        for (Class<?> type = owner; type != null; type = type.getSuperclass()) {
+            Method found = publicDeclaration(type, method);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static Method publicDeclaration(Class<?> type, Method method) {
+        if (Modifier.isPublic(type.getModifiers())) {
+            try {
+                return type.getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                // try the interfaces
+            }
+        }
+        for (Class<?> iface : type.getInterfaces()) {
+            Method found = publicDeclaration(iface, method);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final String name;
+        private final Object[] shape;
+        private final int hash;
+
+        Key(Class<?> type, String name, Object[] shape) {
+            this.type = type;
+            this.name = name;
+            this.shape = shape;
+            this.hash = 31 * (31 * type.hashCode() + name.hashCode()) + Arrays.hashCode(shape);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return type == other.type && name.equals(other.name) && Arrays.equals(shape, other.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
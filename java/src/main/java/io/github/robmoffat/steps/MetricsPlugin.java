@@ -0,0 +1,211 @@
+package io.github.robmoffat.steps;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.github.robmoffat.support.LatencyHistogram;
+import io.github.robmoffat.support.Metrics;
+
+/**
+ * Cucumber plugin that records how long each step definition takes, and how much
+ * internal work the steps do, and writes both out when the run finishes.
+ * <p>
+ * Enable it with {@code --plugin io.github.robmoffat.steps.MetricsPlugin} (or
+ * {@code cucumber.plugin}). By default it writes {@code target/scs-metrics.json} and
+ * {@code target/scs-metrics.prom} (Prometheus text format); pass a different path
+ * prefix as the plugin argument, e.g. {@code io.github.robmoffat.steps.MetricsPlugin:build/metrics}.
+ * The internal counters in {@link Metrics} are only collected while the plugin is loaded.
+ */
+public class MetricsPlugin implements ConcurrentEventListener {
+
+    private static final double NANOS_PER_MS = 1e6;
+
+    private final Path jsonFile;
+    private final Path prometheusFile;
+    private final Map<String, StepStats> steps = new ConcurrentHashMap<>();
+
+    public MetricsPlugin() {
+        this("target/scs-metrics");
+    }
+
+    public MetricsPlugin(String outputPrefix) {
+        this.jsonFile = Paths.get(outputPrefix + ".json");
+        this.prometheusFile = Paths.get(outputPrefix + ".prom");
+        Metrics.reset();
+        Metrics.enable();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::stepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> write());
+    }
+
+    private void stepFinished(TestStepFinished event) {
+        if (!(event.getTestStep() instanceof PickleStepTestStep)) {
+            return;
+        }
+        Status status = event.getResult().getStatus();
+        if (status == Status.UNDEFINED || status == Status.SKIPPED) {
+            return;
+        }
+        PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+        steps.computeIfAbsent(step.getPattern(), p -> new StepStats(p, step.getCodeLocation()))
+                .record(event.getResult().getDuration().toNanos(), status != Status.PASSED);
+    }
+
+    /**
+     * Write the JSON and Prometheus files.
+     */
+    void write() {
+        List<StepStats> sorted = new ArrayList<>(steps.values());
+        sorted.sort(Comparator.comparingLong(StepStats::totalNanos).reversed());
+        try {
+            createParent(jsonFile);
+            createParent(prometheusFile);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(jsonFile.toFile(), toJson(sorted));
+            Files.write(prometheusFile, toPrometheus(sorted).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write step metrics", e);
+        }
+    }
+
+    private static void createParent(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    private static Map<String, Object> toJson(List<StepStats> sorted) {
+        List<Map<String, Object>> stepList = new ArrayList<>();
+        for (StepStats stats : sorted) {
+            stepList.add(stats.toMap());
+        }
+        Map<String, Object> counters = new LinkedHashMap<>();
+        for (Metrics.Counter counter : Metrics.Counter.values()) {
+            counters.put(counter.name().toLowerCase(), Metrics.get(counter));
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("steps", stepList);
+        json.put("counters", counters);
+        return json;
+    }
+
+    private static String toPrometheus(List<StepStats> sorted) {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP scs_step_duration_seconds Time spent in each step definition\n");
+        out.append("# TYPE scs_step_duration_seconds summary\n");
+        for (StepStats stats : sorted) {
+            String label = "step=\"" + escape(stats.pattern) + "\"";
+            synchronized (stats) {
+                for (double q : new double[] { 0.5, 0.9, 0.99 }) {
+                    sample(out, "scs_step_duration_seconds{" + label + ",quantile=\"" + q + "\"}",
+                            stats.latencies.percentile(q * 100) / 1e9);
+                }
+                sample(out, "scs_step_duration_seconds_sum{" + label + "}", stats.totalNanos / 1e9);
+                sample(out, "scs_step_duration_seconds_count{" + label + "}", stats.latencies.count());
+            }
+        }
+        out.append("# HELP scs_step_failures_total Step executions that did not pass\n");
+        out.append("# TYPE scs_step_failures_total counter\n");
+        for (StepStats stats : sorted) {
+            sample(out, "scs_step_failures_total{step=\"" + escape(stats.pattern) + "\"}", stats.failures());
+        }
+        String lastFamily = null;
+        for (Metrics.Counter counter : Metrics.Counter.values()) {
+            String series = counter.metricName();
+            int brace = series.indexOf('{');
+            String family = brace < 0 ? series : series.substring(0, brace);
+            if (!family.equals(lastFamily)) {
+                out.append("# HELP ").append(family).append(' ').append(counter.help()).append('\n');
+                out.append("# TYPE ").append(family).append(" counter\n");
+                lastFamily = family;
+            }
+            sample(out, series, Metrics.get(counter));
+        }
+        return out.toString();
+    }
+
+    private static void sample(StringBuilder out, String series, double value) {
+        out.append(series).append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Timings for one step definition. Steps can finish on several threads at once
+     * when scenarios run in parallel, so updates are synchronized.
+     */
+    private static final class StepStats {
+        private final String pattern;
+        private final String location;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long totalNanos;
+        private long failures;
+
+        StepStats(String pattern, String location) {
+            this.pattern = pattern;
+            this.location = location;
+        }
+
+        synchronized void record(long nanos, boolean failed) {
+            latencies.record(nanos);
+            totalNanos += nanos;
+            if (failed) {
+                failures++;
+            }
+        }
+
+        synchronized long totalNanos() {
+            return totalNanos;
+        }
+
+        synchronized long failures() {
+            return failures;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("pattern", pattern);
+            map.put("location", location);
+            map.put("count", latencies.count());
+            map.put("failures", failures);
+            map.put("totalMs", totalNanos / NANOS_PER_MS);
+            map.put("meanMs", latencies.mean() / NANOS_PER_MS);
+            map.put("p50Ms", latencies.percentile(50) / NANOS_PER_MS);
+            map.put("p90Ms", latencies.percentile(90) / NANOS_PER_MS);
+            map.put("p99Ms", latencies.percentile(99) / NANOS_PER_MS);
+            map.put("maxMs", latencies.max() / NANOS_PER_MS);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.robmoffat.support;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Thread-safe, size-bounded memo cache with hit/miss counters.
+ * <p>
+ * Lookups are lock-free. When the cache is full an arbitrary entry is evicted
+ * to make room, which is adequate for caches of parsed step arguments where the
+ * working set is normally far smaller than the bound.
+ */
+public final class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, V> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BoundedCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return the cached value for the key, computing and storing it on a miss.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = loader.apply(key);
+        if (value != null) {
+            if (entries.size() >= maxSize) {
+                evictOne();
+            }
+            V existing = entries.putIfAbsent(key, value);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return value;
+    }
+
+    private void evictOne() {
+        Iterator<K> it = entries.keySet().iterator();
+        if (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int maxSize() {
+        return maxSize;
+    }
+
+    public void clear() {
+        entries.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Read a cache size from a system property, falling back to the default.
+     */
+    public static int sizeFromProperty(String property, int defaultSize) {
+        String configured = System.getProperty(property);
+        if (configured == null) {
+            return defaultSize;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(configured.trim()));
+        } catch (NumberFormatException e) {
+            return defaultSize;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.robmoffat.support;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Re-runs a check until it passes or a deadline is reached.
+ * <p>
+ * Checks run on the calling thread, which sleeps between them, so they read the
+ * world from the scenario's thread and a slow check can't hold up anyone else's.
+ * Only assertion failures are retried. The first check runs straight away; after
+ * each failure the next runs after a delay that starts at
+ * {@code scs.eventually.initialDelayMs} (default 10) and doubles up to
+ * {@code scs.eventually.maxDelayMs} (default 250), with jitter so that checks
+ * don't fall into step with whatever they are waiting for. The last check runs
+ * at the deadline.
+ */
+public final class Eventually {
+
+    private static final long INITIAL_DELAY_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("scs.eventually.initialDelayMs", 10));
+    private static final long MAX_DELAY_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("scs.eventually.maxDelayMs", 250));
+
+    private Eventually() {
+    }
+
+    /**
+     * How many checks it took and how long from the first to the passing one.
+     */
+    public static final class Result {
+        private final int polls;
+        private final long elapsedNanos;
+
+        Result(int polls, long elapsedNanos) {
+            this.polls = polls;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getPolls() {
+            return polls;
+        }
+
+        public double getElapsedMillis() {
+            return elapsedNanos / 1e6;
+        }
+    }
+
+    /**
+     * Block until the check returns without throwing. If it is still failing at the
+     * deadline, throw an {@link AssertionFailedError} with the last failure as its cause.
+     * Anything else the check throws, such as a {@link NullPointerException}, is
+     * thrown straight away.
+     */
+    public static Result await(Runnable check, long timeoutMs) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long delay = INITIAL_DELAY_NANOS;
+        int polls = 0;
+        while (true) {
+            polls++;
+            try {
+                check.run();
+                return new Result(polls, System.nanoTime() - start);
+            } catch (AssertionError e) {
+                long now = System.nanoTime();
+                if (now - deadline >= 0) {
+                    throw new AssertionFailedError(String.format(
+                            "Still failing after %d polls in %.0f ms: %s",
+                            polls, (now - start) / 1e6, e.getMessage()), e);
+                }
+                long half = delay / 2;
+                long next = half + ThreadLocalRandom.current().nextLong(half + 1);
+                delay = Math.min(delay * 2, MAX_DELAY_NANOS);
+                TimeUnit.NANOSECONDS.sleep(Math.min(next, deadline - now));
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.robmoffat.support;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The executor background jobs run on, with counters showing how busy it is.
+ * <p>
+ * Which executor is used is chosen by the {@code scs.jobs.executor} system property:
+ * <ul>
+ *   <li>{@code common} (default) - the fork-join common pool</li>
+ *   <li>{@code fixed} - a pool of {@code scs.jobs.threads} platform threads
+ *       (default: the number of processors); extra jobs queue until a thread is free</li>
+ *   <li>{@code virtual} - a new virtual thread per job (Java 21 or later)</li>
+ * </ul>
+ * Or call {@link #use(Executor)} to supply your own. There is one instance, which
+ * step classes store in the world as {@code jobExecutor}, so its counters can be
+ * read with e.g. {@code "{jobExecutor.queued}"}.
+ */
+public final class JobExecutor implements Executor {
+
+    private static final JobExecutor INSTANCE = new JobExecutor();
+
+    private volatile Pool pool;
+
+    private JobExecutor() {
+    }
+
+    public static JobExecutor get() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        current().execute(task);
+    }
+
+    /**
+     * (Re)create the executor from the system properties. Counters start again from
+     * zero; jobs already running on a previous pool are left to finish.
+     */
+    public synchronized void configure() {
+        String configured = System.getProperty("scs.jobs.executor", "common").trim();
+        switch (configured) {
+            case "common":
+                replace(new Pool(ForkJoinPool.commonPool(), false, "common", -1));
+                break;
+            case "fixed":
+                int threads = BoundedCache.sizeFromProperty("scs.jobs.threads",
+                        Runtime.getRuntime().availableProcessors());
+                replace(new Pool(fixedPool(threads), true, "fixed", threads));
+                break;
+            case "virtual":
+                replace(new Pool(virtualThreadPerTask(), true, "virtual", -1));
+                break;
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown scs.jobs.executor: " + configured + " (expected common, fixed or virtual)");
+        }
+    }
+
+    /**
+     * Run jobs on the given executor from now on. The caller remains responsible
+     * for shutting it down.
+     */
+    public synchronized void use(Executor executor) {
+        int max = executor instanceof ThreadPoolExecutor
+                ? ((ThreadPoolExecutor) executor).getMaximumPoolSize() : -1;
+        replace(new Pool(executor, false, "custom", max));
+    }
+
+    private void replace(Pool next) {
+        Pool previous = pool;
+        pool = next;
+        if (previous != null && previous.owned) {
+            ((ExecutorService) previous.delegate).shutdown();
+        }
+    }
+
+    private Pool current() {
+        Pool current = pool;
+        if (current == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    configure();
+                }
+                current = pool;
+            }
+        }
+        return current;
+    }
+
+    private static ExecutorService fixedPool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "scs-job-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), factory);
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private static ExecutorService virtualThreadPerTask() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("scs.jobs.executor=virtual needs Java 21 or later");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * common, fixed, virtual or custom.
+     */
+    public String getKind() {
+        return current().kind;
+    }
+
+    /**
+     * The most jobs that can run at once, or -1 if unbounded.
+     */
+    public int getMaxThreads() {
+        return current().maxThreads;
+    }
+
+    /** Jobs running now. */
+    public int getActive() {
+        return current().active.get();
+    }
+
+    /** Jobs waiting for a thread. */
+    public int getQueued() {
+        return current().queued.get();
+    }
+
+    /** The most jobs running at once. */
+    public int getPeakActive() {
+        return current().peakActive.get();
+    }
+
+    /** The most jobs waiting for a thread at once. */
+    public int getPeakQueued() {
+        return current().peakQueued.get();
+    }
+
+    /** Jobs submitted and accepted by the executor. */
+    public long getSubmitted() {
+        return current().submitted.sum();
+    }
+
+    /** Jobs finished, successfully or not. */
+    public long getCompleted() {
+        return current().completed.sum();
+    }
+
+    /** Whether every thread of a bounded pool is busy. */
+    public boolean isSaturated() {
+        Pool current = current();
+        return current.maxThreads > 0 && current.active.get() >= current.maxThreads;
+    }
+
+    /**
+     * An executor and the counters for jobs submitted to it since it was configured.
+     */
+    private static final class Pool implements Executor {
+        private final Executor delegate;
+        private final boolean owned;
+        private final String kind;
+        private final int maxThreads;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger peakActive = new AtomicInteger();
+        private final AtomicInteger peakQueued = new AtomicInteger();
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+
+        Pool(Executor delegate, boolean owned, String kind, int maxThreads) {
+            this.delegate = delegate;
+            this.owned = owned;
+            this.kind = kind;
+            this.maxThreads = maxThreads;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            // counted as queued before the hand-off, as a free thread may start it straight away
+            peakQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+            try {
+                delegate.execute(() -> {
+                    queued.decrementAndGet();
+                    peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        task.run();
+                    } finally {
+                        active.decrementAndGet();
+                        completed.increment();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                queued.decrementAndGet();
+                throw e;
+            }
+            submitted.increment();
+        }
+    }
+}
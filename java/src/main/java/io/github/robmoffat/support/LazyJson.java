@@ -0,0 +1,239 @@
+package io.github.robmoffat.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/**
+ * A JSON file read as a tree of {@link Map}s and {@link List}s that are only
+ * parsed when something looks inside them.
+ * <p>
+ * The file is memory-mapped, not read onto the heap. Opening an object or array
+ * makes one streaming pass over its bytes, recording where each member starts
+ * and ends and skipping over nested containers without building them. Scalars
+ * become {@code String}, {@code Number}, {@code Boolean} or {@code null}; nested
+ * containers become further lazy maps and lists. Since they are ordinary
+ * collections, paths and array assertions work on them unchanged, and only the
+ * parts they touch are ever parsed.
+ * <p>
+ * The maps and lists are read-only. Files must be under 2 GB, the limit of a
+ * single mapping.
+ */
+public final class LazyJson {
+
+    private static final JsonFactory factory = new JsonFactory();
+
+    private LazyJson() {
+    }
+
+    /**
+     * Map the file and return its top-level value: a lazy map or list, or a scalar.
+     */
+    public static Object load(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try (JsonParser parser = parser(buffer, 0, buffer.limit())) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IOException("No JSON value in " + file);
+            }
+            // the root runs to the end of the file, so don't read through it to find its end
+            int start = (int) parser.getTokenLocation().getByteOffset();
+            if (token == JsonToken.START_OBJECT) {
+                return new LazyObject(buffer, start, buffer.limit());
+            }
+            if (token == JsonToken.START_ARRAY) {
+                return new LazyArray(buffer, start, buffer.limit());
+            }
+            return value(parser, buffer, 0);
+        }
+    }
+
+    private static JsonParser parser(ByteBuffer buffer, int start, int end) throws IOException {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(start).limit(end);
+        return factory.createParser(new ByteBufferBackedInputStream(slice));
+    }
+
+    /**
+     * The value at the parser's current token: a scalar, or a lazy container
+     * covering the token's bytes, skipped over without being parsed.
+     */
+    private static Object value(JsonParser parser, ByteBuffer buffer, int offset) throws IOException {
+        JsonToken token = parser.currentToken();
+        switch (token) {
+            case START_OBJECT:
+            case START_ARRAY:
+                int start = offset + (int) parser.getTokenLocation().getByteOffset();
+                parser.skipChildren();
+                int end = offset + (int) parser.getCurrentLocation().getByteOffset();
+                return token == JsonToken.START_OBJECT
+                        ? new LazyObject(buffer, start, end)
+                        : new LazyArray(buffer, start, end);
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new IOException("Unexpected JSON token " + token);
+        }
+    }
+
+    private static final class LazyObject extends AbstractMap<String, Object> {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private Map<String, Object> fields;
+
+        LazyObject(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        private synchronized Map<String, Object> fields() {
+            if (fields == null) {
+                Map<String, Object> parsed = new LinkedHashMap<>();
+                try (JsonParser parser = parser(buffer, start, end)) {
+                    parser.nextToken();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String name = parser.getCurrentName();
+                        parser.nextToken();
+                        parsed.put(name, value(parser, buffer, start));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                fields = Collections.unmodifiableMap(parsed);
+            }
+            return fields;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return fields().get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return fields().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return fields().size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return fields().entrySet();
+        }
+    }
+
+    /**
+     * Holds the bounds of each element rather than a node per element, so a large
+     * array of objects costs a few bytes per element until its elements are used.
+     */
+    private static final class LazyArray extends AbstractList<Object> implements RandomAccess {
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int end;
+        private int size = -1;
+        /** Element bounds, or -1 in {@code starts} for scalars, which are kept in {@code values}. */
+        private int[] starts;
+        private int[] ends;
+        /** Scalars, and container elements once they have been asked for. */
+        private Object[] values;
+
+        LazyArray(ByteBuffer buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        private synchronized void index() {
+            if (size >= 0) {
+                return;
+            }
+            int count = 0;
+            int[] elementStarts = new int[16];
+            int[] elementEnds = new int[16];
+            Object[] scalars = new Object[16];
+            try (JsonParser parser = parser(buffer, start, end)) {
+                parser.nextToken();
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (count == elementStarts.length) {
+                        elementStarts = Arrays.copyOf(elementStarts, count * 2);
+                        elementEnds = Arrays.copyOf(elementEnds, count * 2);
+                        scalars = Arrays.copyOf(scalars, count * 2);
+                    }
+                    if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                        elementStarts[count] = start + (int) parser.getTokenLocation().getByteOffset();
+                        parser.skipChildren();
+                        elementEnds[count] = start + (int) parser.getCurrentLocation().getByteOffset();
+                    } else {
+                        elementStarts[count] = -1;
+                        scalars[count] = value(parser, buffer, start);
+                    }
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            starts = elementStarts;
+            ends = elementEnds;
+            values = scalars;
+            size = count;
+        }
+
+        @Override
+        public synchronized Object get(int index) {
+            index();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            Object value = values[index];
+            if (value == null && starts[index] >= 0) {
+                int elementStart = starts[index];
+                value = buffer.get(elementStart) == '{'
+                        ? new LazyObject(buffer, elementStart, ends[index])
+                        : new LazyArray(buffer, elementStart, ends[index]);
+                values[index] = value;
+            }
+            return value;
+        }
+
+        @Override
+        public synchronized int size() {
+            index();
+            return size;
+        }
+    }
+}
@@ -1,22 +1,30 @@
 package io.github.robmoffat.support;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.robmoffat.world.PropsWorld;
 import org.apache.commons.jxpath.JXPathContext;
 import org.apache.commons.jxpath.JXPathNotFoundException;
+import org.opentest4j.AssertionFailedError;
 
 import io.cucumber.datatable.DataTable;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Utility class for matching and resolving test data.
@@ -25,103 +33,152 @@ public final class MatchingUtils {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    /** Failure messages and logged values are cut off after this many characters. */
+    private static final int MAX_DIAGNOSTIC_CHARS = Integer.getInteger("scs.diagnostics.maxChars", 4000);
+
+    private static final int CLOSEST_CANDIDATES = 3;
+
+    private static final String VALUE = "value";
+
+    private static final Object JXPATH_LOCK = new Object();
+
+    private static final BoundedCache<String, PathExpression> expressionCache =
+            new BoundedCache<>(BoundedCache.sizeFromProperty("scs.expressionCache.size", 1024));
+
+    private static final BoundedCache<String, ResolvePlan> resolvePlans =
+            new BoundedCache<>(BoundedCache.sizeFromProperty("scs.resolveCache.size", 4096));
+
     private MatchingUtils() {
     }
 
+    /**
+     * Number of path expressions served from the parsed-expression cache.
+     */
+    public static long getExpressionCacheHits() {
+        return expressionCache.hits();
+    }
+
+    /**
+     * Number of path expressions that had to be parsed.
+     */
+    public static long getExpressionCacheMisses() {
+        return expressionCache.misses();
+    }
+
+    /**
+     * Number of step arguments resolved using an already-parsed plan.
+     */
+    public static long getResolvePlanCacheHits() {
+        return resolvePlans.hits();
+    }
+
+    /**
+     * Number of step arguments that had to be parsed into a plan.
+     */
+    public static long getResolvePlanCacheMisses() {
+        return resolvePlans.misses();
+    }
+
+    static PathExpression pathExpression(String expression) {
+        return expressionCache.get(expression, PathExpression::parse);
+    }
+
     private static Object extractFromWorld(Object world, String expression) {
+        return extractFromWorld(world, pathExpression(expression));
+    }
+
+    static Object extractFromWorld(Object world, PathExpression path) {
         try {
-            JXPathContext context = JXPathContext.newContext(world);
-            context.setLenient(true);
-            String xpathName = "/" + expression.replaceAll("\\.", "/");
-            xpathName = xpathName.replaceAll("(/[^/]+)/length$", "count($1)");
-            Matcher matcher = Pattern.compile("\\[(\\d+)\\]").matcher(xpathName);
-            StringBuffer sb = new StringBuffer();
-            while (matcher.find()) {
-                int index = Integer.parseInt(matcher.group(1));
-                matcher.appendReplacement(sb, "[" + (index + 1) + "]");
-            }
-            matcher.appendTail(sb);
-            xpathName = sb.toString();
-            Object result = context.getValue(xpathName);
-            if (result instanceof java.util.Optional) {
-                result = ((java.util.Optional<?>) result).orElse(null);
-            }
-            if (result instanceof Number) {
-                double d = ((Number) result).doubleValue();
-                if (d == Math.floor(d) && !Double.isInfinite(d)) {
-                    return (long) d;
+            Object result = path.resolveNative(world);
+            if (result == PathExpression.UNRESOLVED) {
+                Metrics.increment(Metrics.Counter.PATH_JXPATH);
+                // JXPath 1.3 caches bean introspection in static HashMaps without locking
+                synchronized (JXPATH_LOCK) {
+                    JXPathContext context = JXPathContext.newContext(world);
+                    context.setLenient(true);
+                    result = path.compiled().getValue(context);
                 }
-                return d;
+            } else {
+                Metrics.increment(Metrics.Counter.PATH_NATIVE);
             }
-            return result;
+            return normalize(result);
         } catch (JXPathNotFoundException e) {
             return null;
         }
     }
 
     /**
-     * Resolve a field reference to its actual value.
+     * Unwrap {@link java.util.Optional}s and JSON scalars, and turn numbers into
+     * {@code long} (if whole) or {@code double}. JSON objects and arrays are left as they are.
      */
-    public static Object handleResolve(String name, PropsWorld world) {
-        if (name.startsWith("{") && name.endsWith("}")) {
-            String stripped = name.substring(1, name.length() - 1);
-
-            if ("null".equals(stripped)) {
-                return null;
-            } else if ("true".equals(stripped)) {
-                return true;
-            } else if ("false".equals(stripped)) {
-                return false;
-            } else if (isNumeric(stripped)) {
-                return Double.parseDouble(stripped);
-            } else {
-                return extractFromWorld(world, stripped);
+    static Object normalize(Object result) {
+        if (result instanceof java.util.Optional) {
+            result = ((java.util.Optional<?>) result).orElse(null);
+        }
+        if (result instanceof JsonNode) {
+            result = jsonValue((JsonNode) result);
+        }
+        if (result instanceof Number) {
+            double d = ((Number) result).doubleValue();
+            if (d == Math.floor(d) && !Double.isInfinite(d)) {
+                return (long) d;
             }
-        } else {
-            return name;
+            return d;
         }
+        return result;
     }
 
-    private static boolean isNumeric(String str) {
-        try {
-            Double.parseDouble(str);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
+    private static Object jsonValue(JsonNode node) {
+        if (node.isMissingNode() || node.isNull()) {
+            return null;
+        }
+        if (node.isContainerNode()) {
+            return node;
+        }
+        if (node.isNumber()) {
+            return node.numberValue();
+        }
+        if (node.isBoolean()) {
+            return node.booleanValue();
         }
+        return node.asText();
+    }
+
+    /**
+     * Resolve a field reference to its actual value. Each distinct argument string
+     * is only parsed the first time it is seen.
+     */
+    public static Object handleResolve(String name, PropsWorld world) {
+        Metrics.increment(Metrics.Counter.RESOLVE);
+        return resolvePlans.get(name, ResolvePlan::parse).resolve(world);
     }
 
     /**
      * Check if a table row matches the given data object.
      */
     public static boolean doesRowMatch(PropsWorld world, Map<String, String> row, Object data) {
+        Metrics.increment(Metrics.Counter.ROW_COMPARISON);
         for (Map.Entry<String, String> entry : row.entrySet()) {
-            String field = entry.getKey();
-            String expected = entry.getValue();
-
             try {
-                Object found = extractFromWorld(data, field);
-                Object resolved = handleResolve(expected, world);
-
-                if (!Objects.equals(asString(found), asString(resolved))) {
-                    world.log(String.format(
-                            "Match failed on %s: '%s' vs '%s'", field, found, resolved));
+                Object found = extractFromWorld(data, entry.getKey());
+                Object resolved = handleResolve(entry.getValue(), world);
+                if (!Values.equivalent(found, resolved)) {
                     return false;
                 }
-            } catch (JXPathNotFoundException e) {
-                world.log("Path not found: " + field);
-                return false;
             } catch (Exception e) {
-                world.log("Error: " + e.getMessage());
                 return false;
             }
         }
-
         return true;
     }
 
-    private static String asString(Object value) {
-        return value == null ? null : String.valueOf(value);
+    /**
+     * Describe the fields where the data object differs from the row, or null if it matches.
+     * Only meant for failure messages: unlike {@link #doesRowMatch} it checks every field.
+     */
+    public static String describeMismatch(PropsWorld world, Map<String, String> row, Object data) {
+        List<String> diffs = mismatches(resolveRow(world, row), data);
+        return diffs.isEmpty() ? null : truncate(String.join("; ", diffs));
     }
 
     /**
@@ -140,43 +197,235 @@ public final class MatchingUtils {
      * Match an array of data against a Cucumber DataTable (exact match).
      */
     public static void matchData(PropsWorld world, List<?> actual, DataTable dt) {
+        matchData(world, Sequence.of(actual), dt);
+    }
+
+    /**
+     * Match a sequence against a Cucumber DataTable (exact match), stopping at the first mismatch.
+     */
+    public static void matchData(PropsWorld world, Sequence actual, DataTable dt) {
         List<Map<String, String>> tableData = dt.asMaps();
         int rowCount = tableData.size();
+        checkKnownLength(world, actual, rowCount);
 
-        world.log(String.format("result %s length %d", formatJson(actual), actual.size()));
-        assertEquals(rowCount, actual.size(), "Array length mismatch");
+        List<?> list = parallelList(actual);
+        if (list != null) {
+            OptionalInt firstFailure = IntStream.range(0, rowCount).parallel()
+                    .filter(i -> !doesRowMatch(world, tableData.get(i), list.get(i)))
+                    .findFirst();
+            if (firstFailure.isPresent()) {
+                int row = firstFailure.getAsInt();
+                failRow(world, row, tableData.get(row), list.get(row));
+            }
+            return;
+        }
 
-        List<Object> unmatched = new ArrayList<>();
         int row = 0;
         for (Object item : actual) {
-            Map<String, String> matchingRow = tableData.get(row);
+            if (row == rowCount) {
+                fail(world, String.format("Array length mismatch: expected %d but there are more elements", rowCount));
+            }
+            if (!doesRowMatch(world, tableData.get(row), item)) {
+                failRow(world, row, tableData.get(row), item);
+            }
             row++;
-            if (!doesRowMatch(world, matchingRow, item)) {
-                world.log("Couldn't match row: " + formatJson(item));
-                unmatched.add(item);
+        }
+        checkReadLength(world, row, rowCount);
+    }
+
+    private static void failRow(PropsWorld world, int row, Map<String, String> expectedRow, Object item) {
+        fail(world, "Row " + row + " could not be matched: "
+                + describeMismatch(world, expectedRow, item)
+                + "\n  element: " + formatJson(item));
+    }
+
+    /**
+     * The elements as a random-access list if parallel matching is switched on and
+     * there are enough of them to be worth splitting, otherwise null.
+     * <p>
+     * Workers only evaluate rows; all logging and failure reporting happens on the
+     * calling thread, for the lowest failing position, so results don't depend on
+     * scheduling.
+     */
+    private static List<?> parallelList(Sequence actual) {
+        if (!Boolean.getBoolean("scs.matching.parallel")) {
+            return null;
+        }
+        List<?> list = actual.asRandomAccess();
+        int threshold = Integer.getInteger("scs.matching.parallelThreshold", 10_000);
+        return list != null && list.size() >= threshold ? list : null;
+    }
+
+    /**
+     * Match a sequence of single values against a table with a {@code value} column,
+     * reading primitive arrays as strings so they are never boxed.
+     */
+    public static void matchValues(PropsWorld world, Sequence actual, DataTable dt) {
+        List<Map<String, String>> tableData = dt.asMaps();
+        if (!tableData.isEmpty() && !tableData.get(0).keySet().equals(Collections.singleton(VALUE))) {
+            List<Object> wrapped = new ArrayList<>();
+            for (Object item : actual) {
+                wrapped.add(Collections.singletonMap(VALUE, item));
+            }
+            matchData(world, wrapped, dt);
+            return;
+        }
+        int rowCount = tableData.size();
+        checkKnownLength(world, actual, rowCount);
+
+        int row = 0;
+        for (Iterator<String> it = actual.strings(); it.hasNext(); row++) {
+            String found = it.next();
+            if (row == rowCount) {
+                fail(world, String.format("Array length mismatch: expected %d but there are more elements", rowCount));
+            }
+            String expected = tableData.get(row).get(VALUE);
+            Object resolved;
+            try {
+                resolved = handleResolve(expected, world);
+            } catch (Exception e) {
+                resolved = e;
+            }
+            if (!Values.equivalent(found, resolved)) {
+                fail(world, String.format("Row %d could not be matched: value: expected '%s' but was '%s'",
+                        row, resolved, found));
             }
         }
+        checkReadLength(world, row, rowCount);
+    }
+
+    private static void checkKnownLength(PropsWorld world, Sequence actual, int rowCount) {
+        if (actual.knownSize() >= 0 && actual.knownSize() != rowCount) {
+            String message = String.format("Array length mismatch: expected %d but was %d: %s",
+                    rowCount, actual.knownSize(), formatJson(actual.source()));
+            world.log(message);
+            assertEquals(rowCount, actual.knownSize(), message);
+        }
+    }
+
+    private static void checkReadLength(PropsWorld world, int read, int rowCount) {
+        if (read != rowCount) {
+            String message = String.format("Array length mismatch: expected %d but was %d", rowCount, read);
+            world.log(message);
+            assertEquals(rowCount, read, message);
+        }
+    }
 
-        assertTrue(unmatched.isEmpty(), "Some rows could not be matched: " + formatJson(unmatched));
+    /**
+     * Match an array against a Cucumber DataTable in any order: every row must match
+     * its own element, and every element a row.
+     */
+    public static void matchDataInAnyOrder(PropsWorld world, List<?> actual, DataTable dt) {
+        matchDataInAnyOrder(world, Sequence.of(actual), dt);
+    }
+
+    /**
+     * Match a sequence against a Cucumber DataTable in any order, reporting every row
+     * and element left unpaired.
+     * <p>
+     * Each element is projected once onto the table's columns and looked up by its
+     * {@link Values#hashKey}s, so this takes time linear in the number of elements and
+     * rows unless many rows differ only in ways the hash keys can't tell apart (see
+     * {@link UnorderedMatch}).
+     */
+    public static void matchDataInAnyOrder(PropsWorld world, Sequence actual, DataTable dt) {
+        List<Map<String, String>> tableData = dt.asMaps();
+        UnorderedMatch match = new UnorderedMatch(expectedValues(world, tableData));
+        Collection<String> columns = tableData.isEmpty() ? Collections.emptyList() : tableData.get(0).keySet();
+        List<Object> elements = new ArrayList<>();
+        List<?> list = parallelList(actual);
+        if (list != null) {
+            List<int[]> candidates = list.parallelStream()
+                    .map(item -> match.candidates(project(item, columns)))
+                    .collect(Collectors.toList());
+            for (int i = 0; i < candidates.size(); i++) {
+                match.add(i, candidates.get(i));
+            }
+            elements.addAll(list);
+        } else {
+            int position = 0;
+            for (Object item : actual) {
+                match.add(position++, match.candidates(project(item, columns)));
+                elements.add(item);
+            }
+        }
+        UnorderedMatch.Result result = match.finish();
+        if (result.isComplete()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder(String.format(
+                "Array doesn't match in any order: %d of %d rows and %d of %d elements unmatched",
+                result.unmatchedRows.size(), tableData.size(), result.unmatchedElements.size(), elements.size()));
+        if (!result.unmatchedRows.isEmpty()) {
+            message.append("\n  rows not matched:");
+            for (int row : result.unmatchedRows) {
+                message.append("\n    row ").append(row).append(": ").append(formatCompact(tableData.get(row)));
+            }
+        }
+        if (!result.unmatchedElements.isEmpty()) {
+            message.append("\n  elements not matched:");
+            for (int position : result.unmatchedElements) {
+                message.append("\n    [").append(position).append("] ").append(formatCompact(elements.get(position)));
+            }
+        }
+        fail(world, message.toString());
     }
 
     /**
      * Match an array — at least the given rows must be present.
      */
     public static void matchDataAtLeast(PropsWorld world, List<?> actual, DataTable dt) {
+        matchDataAtLeast(world, Sequence.of(actual), dt);
+    }
+
+    /**
+     * Match a sequence — at least the given rows must be present.
+     * <p>
+     * Each expected row is resolved once and indexed by the {@link Values#hashKey}s
+     * of its cells; each element is projected once onto the table's columns and only
+     * compared with the rows under its own key. Reading stops as soon as every row
+     * has been seen.
+     */
+    public static void matchDataAtLeast(PropsWorld world, Sequence actual, DataTable dt) {
         List<Map<String, String>> tableData = dt.asMaps();
-        for (Map<String, String> expectedRow : tableData) {
-            boolean found = false;
+        if (tableData.isEmpty()) {
+            return;
+        }
+        List<List<Object>> expected = expectedValues(world, tableData);
+        int unresolvable = expected.indexOf(null);
+        if (unresolvable >= 0) {
+            failNotFound(world, tableData.get(unresolvable), actual);
+        }
+        Map<List<Object>, List<Integer>> remaining = index(expected);
+        Collection<String> columns = tableData.get(0).keySet();
+        Set<Integer> found = new HashSet<>();
+        List<?> list = parallelList(actual);
+        if (list != null) {
+            Map<List<Object>, List<Integer>> wanted = remaining;
+            found.addAll(list.parallelStream()
+                    .flatMap(item -> matchingRows(wanted, expected, project(item, columns)).stream())
+                    .collect(Collectors.toSet()));
+        } else {
             for (Object item : actual) {
-                if (doesRowMatch(world, expectedRow, item)) {
-                    found = true;
-                    break;
+                List<Object> values = project(item, columns);
+                List<Integer> rows = matchingRows(remaining, expected, values);
+                if (rows.isEmpty()) {
+                    continue;
+                }
+                found.addAll(rows);
+                remaining.computeIfPresent(hashKeys(values), (key, bucket) -> {
+                    bucket.removeAll(rows);
+                    return bucket.isEmpty() ? null : bucket;
+                });
+                if (remaining.isEmpty()) {
+                    return;
                 }
             }
-            if (!found) {
-                world.log("Expected row not found: " + formatJson(expectedRow));
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!found.contains(i)) {
+                failNotFound(world, tableData.get(i), actual);
             }
-            assertTrue(found, "Expected row not found: " + formatJson(expectedRow));
         }
     }
 
@@ -184,23 +433,249 @@ public final class MatchingUtils {
      * Assert none of the given rows are present in the array.
      */
     public static void matchDataDoesntContain(PropsWorld world, List<?> actual, DataTable dt) {
+        matchDataDoesntContain(world, Sequence.of(actual), dt);
+    }
+
+    /**
+     * Assert none of the given rows are present in the sequence, stopping at the first one found.
+     */
+    public static void matchDataDoesntContain(PropsWorld world, Sequence actual, DataTable dt) {
         List<Map<String, String>> tableData = dt.asMaps();
-        for (Map<String, String> unwantedRow : tableData) {
-            for (Object item : actual) {
-                boolean found = doesRowMatch(world, unwantedRow, item);
-                if (found) {
-                    world.log("Unwanted row found: " + formatJson(unwantedRow));
+        if (tableData.isEmpty()) {
+            return;
+        }
+        List<List<Object>> expected = expectedValues(world, tableData);
+        Map<List<Object>, List<Integer>> unwanted = index(expected);
+        if (unwanted.isEmpty()) {
+            return;
+        }
+        Collection<String> columns = tableData.get(0).keySet();
+        List<?> list = parallelList(actual);
+        if (list != null) {
+            OptionalInt firstFound = IntStream.range(0, list.size()).parallel()
+                    .filter(i -> !matchingRows(unwanted, expected, project(list.get(i), columns)).isEmpty())
+                    .findFirst();
+            if (firstFound.isPresent()) {
+                int position = firstFound.getAsInt();
+                Object item = list.get(position);
+                int row = matchingRows(unwanted, expected, project(item, columns)).get(0);
+                failUnwanted(world, tableData.get(row), position, item);
+            }
+            return;
+        }
+        int position = 0;
+        for (Object item : actual) {
+            List<Integer> rows = matchingRows(unwanted, expected, project(item, columns));
+            if (!rows.isEmpty()) {
+                failUnwanted(world, tableData.get(rows.get(0)), position, item);
+            }
+            position++;
+        }
+    }
+
+    private static void failUnwanted(PropsWorld world, Map<String, String> unwantedRow, int position, Object item) {
+        fail(world, "Unwanted row found: " + formatJson(unwantedRow)
+                + "\n  matched element " + position + ": " + formatJson(item));
+    }
+
+    private static void failNotFound(PropsWorld world, Map<String, String> expectedRow, Sequence actual) {
+        fail(world, "Expected row not found: " + formatJson(expectedRow)
+                + closestCandidates(world, expectedRow, actual));
+    }
+
+    private static void fail(PropsWorld world, String message) {
+        String bounded = truncate(message);
+        world.log(bounded);
+        throw new AssertionFailedError(bounded);
+    }
+
+    /**
+     * Project an item onto the table's columns, or null if its fields can't be read,
+     * in which case it matches nothing.
+     */
+    private static List<Object> project(Object item, Collection<String> columns) {
+        List<Object> values = new ArrayList<>(columns.size());
+        try {
+            for (String column : columns) {
+                values.add(extractFromWorld(item, column));
+            }
+        } catch (Exception e) {
+            return null;
+        }
+        return values;
+    }
+
+    /**
+     * The values an element would need to match each row, or null for rows that can't match anything.
+     */
+    private static List<List<Object>> expectedValues(PropsWorld world, List<Map<String, String>> tableData) {
+        List<List<Object>> expected = new ArrayList<>(tableData.size());
+        for (Map<String, String> row : tableData) {
+            List<Object> values = new ArrayList<>(row.size());
+            try {
+                for (String cell : row.values()) {
+                    values.add(handleResolve(cell, world));
                 }
-                assertTrue(!found, "Unwanted row found: " + formatJson(unwantedRow));
+            } catch (Exception e) {
+                values = null;
             }
+            expected.add(values);
         }
+        return expected;
     }
 
-    private static String formatJson(Object obj) {
+    /**
+     * Row numbers grouped by the hash keys of their values, in table order.
+     * Rows that can't match anything are left out.
+     */
+    private static Map<List<Object>, List<Integer>> index(List<List<Object>> expected) {
+        Map<List<Object>, List<Integer>> index = new HashMap<>();
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i) != null) {
+                index.computeIfAbsent(hashKeys(expected.get(i)), k -> new ArrayList<>()).add(i);
+            }
+        }
+        return index;
+    }
+
+    static List<Object> hashKeys(List<Object> values) {
+        List<Object> keys = new ArrayList<>(values.size());
+        for (Object value : values) {
+            keys.add(Values.hashKey(value));
+        }
+        return keys;
+    }
+
+    /**
+     * The indexed rows the projected element matches, in table order.
+     */
+    private static List<Integer> matchingRows(Map<List<Object>, List<Integer>> index,
+                                              List<List<Object>> expected, List<Object> values) {
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        List<Integer> bucket = index.get(hashKeys(values));
+        if (bucket == null) {
+            return Collections.emptyList();
+        }
+        List<Integer> rows = new ArrayList<>(1);
+        for (Integer row : bucket) {
+            if (allEquivalent(values, expected.get(row))) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    static boolean allEquivalent(List<Object> actual, List<Object> expected) {
+        for (int i = 0; i < actual.size(); i++) {
+            if (!Values.equivalent(actual.get(i), expected.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolve each expected cell once, keeping any resolution error as the value.
+     */
+    private static Map<String, Object> resolveRow(PropsWorld world, Map<String, String> row) {
+        Map<String, Object> resolved = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : row.entrySet()) {
+            try {
+                resolved.put(entry.getKey(), handleResolve(entry.getValue(), world));
+            } catch (Exception e) {
+                resolved.put(entry.getKey(), e);
+            }
+        }
+        return resolved;
+    }
+
+    private static List<String> mismatches(Map<String, Object> resolvedRow, Object data) {
+        List<String> diffs = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : resolvedRow.entrySet()) {
+            String field = entry.getKey();
+            Object expected = entry.getValue();
+            if (expected instanceof Exception) {
+                diffs.add(field + ": " + ((Exception) expected).getMessage());
+                continue;
+            }
+            try {
+                Object found = extractFromWorld(data, field);
+                if (!Values.equivalent(found, expected)) {
+                    diffs.add(String.format("%s: expected '%s' but was '%s'", field, expected, found));
+                }
+            } catch (Exception e) {
+                diffs.add(field + ": " + e.getMessage());
+            }
+        }
+        return diffs;
+    }
+
+    /**
+     * The elements that differ from the row in the fewest fields, with those fields.
+     */
+    private static String closestCandidates(PropsWorld world, Map<String, String> row, Sequence actual) {
+        if (!actual.isRepeatable()) {
+            return "";
+        }
+        Map<String, Object> resolvedRow = resolveRow(world, row);
+        List<Integer> positions = new ArrayList<>();
+        List<List<String>> diffs = new ArrayList<>();
+        int position = 0;
+        for (Object item : actual) {
+            List<String> itemDiffs = mismatches(resolvedRow, item);
+            int slot = diffs.size();
+            while (slot > 0 && itemDiffs.size() < diffs.get(slot - 1).size()) {
+                slot--;
+            }
+            if (slot < CLOSEST_CANDIDATES) {
+                positions.add(slot, position);
+                diffs.add(slot, itemDiffs);
+                if (diffs.size() > CLOSEST_CANDIDATES) {
+                    positions.remove(CLOSEST_CANDIDATES);
+                    diffs.remove(CLOSEST_CANDIDATES);
+                }
+            }
+            position++;
+        }
+        if (diffs.isEmpty()) {
+            return "\n  (array is empty)";
+        }
+        StringBuilder sb = new StringBuilder("\n  closest elements:");
+        for (int i = 0; i < diffs.size(); i++) {
+            sb.append("\n    [").append(positions.get(i)).append("] ").append(String.join("; ", diffs.get(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Cut off text longer than {@code scs.diagnostics.maxChars} for a failure message or log line.
+     */
+    public static String truncate(String text) {
+        if (text.length() <= MAX_DIAGNOSTIC_CHARS) {
+            return text;
+        }
+        return text.substring(0, MAX_DIAGNOSTIC_CHARS)
+                + "... (" + (text.length() - MAX_DIAGNOSTIC_CHARS) + " more chars)";
+    }
+
+    /**
+     * One line of JSON, for listing many values.
+     */
+    private static String formatCompact(Object obj) {
         try {
-            return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(obj);
+            return objectMapper.writeValueAsString(obj);
         } catch (JsonProcessingException e) {
             return String.valueOf(obj);
         }
     }
+
+    private static String formatJson(Object obj) {
+        try {
+            return truncate(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(obj));
+        } catch (JsonProcessingException e) {
+            return truncate(String.valueOf(obj));
+        }
+    }
 }
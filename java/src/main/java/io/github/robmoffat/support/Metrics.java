@@ -0,0 +1,85 @@
+package io.github.robmoffat.support;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the library's internal work, switched on by
+ * {@link io.github.robmoffat.steps.MetricsPlugin}.
+ * <p>
+ * While disabled, {@link #increment} is a single read of a static field, so the
+ * counting sites cost next to nothing. The flag is set before any scenario runs
+ * and isn't expected to change during a run.
+ */
+public final class Metrics {
+
+    public enum Counter {
+        RESOLVE("scs_resolve_total", "Step arguments resolved by handleResolve"),
+        PATH_NATIVE("scs_path_extractions_total{resolver=\"native\"}",
+                "Path expressions resolved, by resolver (built-in or JXPath)"),
+        PATH_JXPATH("scs_path_extractions_total{resolver=\"jxpath\"}",
+                "Path expressions resolved, by resolver (built-in or JXPath)"),
+        METHOD_DISPATCH("scs_method_dispatches_total", "Methods and functions invoked reflectively"),
+        ROW_COMPARISON("scs_row_comparisons_total", "Table rows compared with doesRowMatch"),
+        LEAKED_JOB("scs_leaked_jobs_total", "Jobs still running when their scenario ended, and cancelled");
+
+        private final String metricName;
+        private final String help;
+
+        Counter(String metricName, String help) {
+            this.metricName = metricName;
+            this.help = help;
+        }
+
+        /**
+         * The Prometheus series this counter is exported as, including any labels.
+         */
+        public String metricName() {
+            return metricName;
+        }
+
+        public String help() {
+            return help;
+        }
+    }
+
+    private static final LongAdder[] counts = new LongAdder[Counter.values().length];
+
+    static {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    private static boolean enabled;
+
+    private Metrics() {
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void increment(Counter counter) {
+        if (enabled) {
+            counts[counter.ordinal()].increment();
+        }
+    }
+
+    public static long get(Counter counter) {
+        return counts[counter.ordinal()].sum();
+    }
+
+    public static void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+    }
+}
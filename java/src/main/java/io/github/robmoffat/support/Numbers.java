@@ -0,0 +1,112 @@
+package io.github.robmoffat.support;
+
+/**
+ * Number checks that don't rely on catching {@link NumberFormatException}.
+ */
+public final class Numbers {
+
+    private Numbers() {
+    }
+
+    /**
+     * Whether {@link Double#parseDouble} would accept the string, decided without
+     * calling it: optional surrounding whitespace and sign, then {@code NaN},
+     * {@code Infinity}, a decimal or a hexadecimal floating-point literal, with an
+     * optional {@code f}/{@code d} suffix.
+     */
+    public static boolean isNumeric(String s) {
+        if (s == null) {
+            return false;
+        }
+        int end = s.length();
+        int i = 0;
+        while (i < end && s.charAt(i) <= ' ') {
+            i++;
+        }
+        while (end > i && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (i == end) {
+            return false;
+        }
+        char first = s.charAt(i);
+        if (first == '+' || first == '-') {
+            i++;
+        }
+        if (s.startsWith("NaN", i)) {
+            return i + 3 == end;
+        }
+        if (s.startsWith("Infinity", i)) {
+            return i + 8 == end;
+        }
+        char last = s.charAt(end - 1);
+        if (last == 'f' || last == 'F' || last == 'd' || last == 'D') {
+            end--;
+        }
+        if (end - i > 1 && s.charAt(i) == '0' && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            return isHexLiteral(s, i + 2, end);
+        }
+        return isDecimalLiteral(s, i, end);
+    }
+
+    private static boolean isDecimalLiteral(String s, int i, int end) {
+        int digits = 0;
+        while (i < end && isDigit(s.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(s.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            return isSignedInteger(s, i + 1, end);
+        }
+        return i == end;
+    }
+
+    private static boolean isHexLiteral(String s, int i, int end) {
+        int digits = 0;
+        while (i < end && Character.digit(s.charAt(i), 16) >= 0) {
+            i++;
+            digits++;
+        }
+        if (i < end && s.charAt(i) == '.') {
+            i++;
+            while (i < end && Character.digit(s.charAt(i), 16) >= 0) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0 || i == end || (s.charAt(i) != 'p' && s.charAt(i) != 'P')) {
+            return false;
+        }
+        return isSignedInteger(s, i + 1, end);
+    }
+
+    private static boolean isSignedInteger(String s, int i, int end) {
+        if (i < end && (s.charAt(i) == '+' || s.charAt(i) == '-')) {
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        while (i < end) {
+            if (!isDigit(s.charAt(i))) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
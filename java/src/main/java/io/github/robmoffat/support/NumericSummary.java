@@ -0,0 +1,212 @@
+package io.github.robmoffat.support;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Count, sum, minimum, maximum, mean and order of a sequence of numbers, taken in
+ * one pass.
+ * <p>
+ * {@code int[]}, {@code long[]}, {@code double[]}, {@code float[]}, {@code short[]}
+ * and {@code byte[]} are read element by element without boxing. Other sequences
+ * may hold {@link Number}s, numeric strings or JSON numbers. While every element is
+ * a whole number the sum, minimum and maximum are kept as exact {@code long}s; once
+ * a fractional element is seen, or the sum overflows, they become {@code double}s.
+ */
+public final class NumericSummary {
+
+    private long count;
+    private boolean integral = true;
+    private boolean overflowed;
+    private long longSum;
+    private double doubleSum;
+    private long longMin = Long.MAX_VALUE;
+    private long longMax = Long.MIN_VALUE;
+    private double doubleMin = Double.POSITIVE_INFINITY;
+    private double doubleMax = Double.NEGATIVE_INFINITY;
+    private long previousLong;
+    private double previous;
+    /** Position of the first element smaller (larger) than the one before, or -1. */
+    private long firstDescent = -1;
+    private long firstAscent = -1;
+
+    private NumericSummary() {
+    }
+
+    /**
+     * Summarise an array, collection, stream or anything else {@link Sequence#of} accepts.
+     *
+     * @throws IllegalArgumentException if an element isn't a number
+     */
+    public static NumericSummary of(Object source) {
+        NumericSummary summary = new NumericSummary();
+        if (source instanceof int[]) {
+            for (int v : (int[]) source) {
+                summary.add(v);
+            }
+        } else if (source instanceof long[]) {
+            for (long v : (long[]) source) {
+                summary.add(v);
+            }
+        } else if (source instanceof double[]) {
+            for (double v : (double[]) source) {
+                summary.add(v);
+            }
+        } else if (source instanceof float[]) {
+            for (float v : (float[]) source) {
+                summary.add((double) v);
+            }
+        } else if (source instanceof short[]) {
+            for (short v : (short[]) source) {
+                summary.add(v);
+            }
+        } else if (source instanceof byte[]) {
+            for (byte v : (byte[]) source) {
+                summary.add(v);
+            }
+        } else {
+            for (Object item : Sequence.of(source)) {
+                summary.add(item);
+            }
+        }
+        return summary;
+    }
+
+    private void add(Object item) {
+        Object value = MatchingUtils.normalize(item);
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            add(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            add(((Number) value).doubleValue());
+        } else if (value instanceof String && Numbers.isNumeric((String) value)) {
+            add(Double.parseDouble((String) value));
+        } else {
+            throw new IllegalArgumentException("Element " + count + " is not a number: " + value);
+        }
+    }
+
+    private void add(long value) {
+        if (count > 0) {
+            if (integral) {
+                order(Long.compare(value, previousLong));
+            } else {
+                order(Double.compare(value, previous));
+            }
+        }
+        count++;
+        if (integral && !overflowed) {
+            try {
+                longSum = Math.addExact(longSum, value);
+            } catch (ArithmeticException e) {
+                overflowed = true;
+            }
+        }
+        doubleSum += value;
+        longMin = Math.min(longMin, value);
+        longMax = Math.max(longMax, value);
+        doubleMin = Math.min(doubleMin, value);
+        doubleMax = Math.max(doubleMax, value);
+        previousLong = value;
+        previous = value;
+    }
+
+    private void add(double value) {
+        if (count > 0) {
+            order(Double.compare(value, previous));
+        }
+        count++;
+        integral = false;
+        doubleSum += value;
+        doubleMin = Math.min(doubleMin, value);
+        doubleMax = Math.max(doubleMax, value);
+        previous = value;
+    }
+
+    private void order(int comparison) {
+        if (comparison < 0 && firstDescent < 0) {
+            firstDescent = count;
+        } else if (comparison > 0 && firstAscent < 0) {
+            firstAscent = count;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /**
+     * A {@code Long} while every element is whole and the total fits, otherwise a {@code Double}.
+     */
+    public Number sum() {
+        return integral && !overflowed ? (Number) longSum : (Number) doubleSum;
+    }
+
+    /**
+     * The smallest element, or null if there are none.
+     */
+    public Number min() {
+        if (count == 0) {
+            return null;
+        }
+        return integral ? (Number) longMin : (Number) doubleMin;
+    }
+
+    /**
+     * The largest element, or null if there are none.
+     */
+    public Number max() {
+        if (count == 0) {
+            return null;
+        }
+        return integral ? (Number) longMax : (Number) doubleMax;
+    }
+
+    /**
+     * The arithmetic mean, or null if there are no elements.
+     */
+    public Double mean() {
+        if (count == 0) {
+            return null;
+        }
+        return (integral && !overflowed ? (double) longSum : doubleSum) / count;
+    }
+
+    /**
+     * The position of the first element that is smaller than the one before it, or -1
+     * if the elements are in ascending order (equal neighbours are allowed).
+     */
+    public long firstDescent() {
+        return firstDescent;
+    }
+
+    /**
+     * The position of the first element that is larger than the one before it, or -1
+     * if the elements are in descending order (equal neighbours are allowed).
+     */
+    public long firstAscent() {
+        return firstAscent;
+    }
+
+    /**
+     * Whether every element is within the bounds, inclusive. True if there are none.
+     */
+    public boolean isBetween(double low, double high) {
+        if (count == 0) {
+            return true;
+        }
+        return integral ? longMin >= low && longMax <= high : doubleMin >= low && doubleMax <= high;
+    }
+
+    /**
+     * {@code count}, {@code sum}, {@code min}, {@code max} and {@code mean}, for storing in the world.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", count);
+        map.put("sum", sum());
+        map.put("min", min());
+        map.put("max", max());
+        map.put("mean", mean());
+        return map;
+    }
+}
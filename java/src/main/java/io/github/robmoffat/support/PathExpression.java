@@ -0,0 +1,263 @@
+package io.github.robmoffat.support;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.jxpath.CompiledExpression;
+import org.apache.commons.jxpath.JXPathContext;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A parsed {@code a.b[0].c} path expression.
+ * <p>
+ * Simple paths over {@link Map}s, {@link List}s, Java arrays and public beans are
+ * walked directly. Once the walk reaches a Jackson {@link JsonNode}, the rest of
+ * the path is looked up with a {@link JsonPointer}, built once per starting segment.
+ * Anything the native walk cannot answer with certainty is left to JXPath, using
+ * an expression compiled once per path.
+ */
+final class PathExpression {
+
+    /** Returned by {@link #resolveNative} when the path has to go through JXPath. */
+    static final Object UNRESOLVED = new Object();
+
+    private static final Pattern INDEX_PATTERN = Pattern.compile("\\[(\\d+)\\]");
+    private static final Pattern SEGMENT_PATTERN =
+            Pattern.compile("([A-Za-z_][A-Za-z0-9_\\-]*)(?:\\[(\\d{1,9})\\])?");
+    private static final int NO_INDEX = -1;
+
+    private static final ClassValue<Map<String, MethodHandle>> GETTERS = new ClassValue<>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return findGetters(type);
+        }
+    };
+
+    private final String xpath;
+    private final String[] names;
+    private final int[] indices;
+    private final boolean length;
+    private final JsonPointer[] pointers;
+    private volatile CompiledExpression compiled;
+
+    private PathExpression(String xpath, String[] names, int[] indices, boolean length) {
+        this.xpath = xpath;
+        this.names = names;
+        this.indices = indices;
+        this.length = length;
+        this.pointers = names == null ? null : new JsonPointer[names.length];
+    }
+
+    static PathExpression parse(String expression) {
+        String xpath = toXPath(expression);
+        String[] parts = expression.split("\\.", -1);
+        int count = parts.length;
+        boolean length = count > 1 && "length".equals(parts[count - 1]);
+        if (length) {
+            count--;
+        }
+        String[] names = new String[count];
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            Matcher matcher = SEGMENT_PATTERN.matcher(parts[i]);
+            if (!matcher.matches()) {
+                return new PathExpression(xpath, null, null, false);
+            }
+            names[i] = matcher.group(1);
+            indices[i] = matcher.group(2) == null ? NO_INDEX : Integer.parseInt(matcher.group(2));
+        }
+        if (length && indices[count - 1] != NO_INDEX) {
+            // count() of an indexed node is always 0 or 1 in XPath, not the collection size
+            return new PathExpression(xpath, null, null, false);
+        }
+        return new PathExpression(xpath, names, indices, length);
+    }
+
+    private static String toXPath(String expression) {
+        String xpathName = "/" + expression.replace('.', '/');
+        xpathName = xpathName.replaceAll("(/[^/]+)/length$", "count($1)");
+        Matcher matcher = INDEX_PATTERN.matcher(xpathName);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            int index = Integer.parseInt(matcher.group(1));
+            matcher.appendReplacement(sb, "[" + (index + 1) + "]");
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * The JXPath form of this expression, compiled on first use.
+     */
+    CompiledExpression compiled() {
+        CompiledExpression result = compiled;
+        if (result == null) {
+            result = JXPathContext.compile(xpath);
+            compiled = result;
+        }
+        return result;
+    }
+
+    /**
+     * Walk the path directly, or return {@link #UNRESOLVED} if JXPath is needed.
+     */
+    Object resolveNative(Object root) {
+        if (names == null) {
+            return UNRESOLVED;
+        }
+        Object current = root;
+        for (int i = 0; i < names.length; i++) {
+            if (current == null) {
+                return length ? 0L : null;
+            }
+            if (current instanceof JsonNode) {
+                current = ((JsonNode) current).at(pointer(i));
+                break;
+            }
+            current = property(current, names[i]);
+            if (current == UNRESOLVED) {
+                return UNRESOLVED;
+            }
+            if (indices[i] != NO_INDEX) {
+                current = element(current, indices[i]);
+                if (current == UNRESOLVED) {
+                    return UNRESOLVED;
+                }
+            } else if (i < names.length - 1 && isCollection(current)) {
+                // XPath would step into every element of the collection
+                return UNRESOLVED;
+            }
+        }
+        if (length) {
+            if (current == null) {
+                return 0L;
+            }
+            if (current instanceof List) {
+                return (long) ((List<?>) current).size();
+            }
+            if (current.getClass().isArray()) {
+                return (long) Array.getLength(current);
+            }
+            if (current instanceof JsonNode) {
+                JsonNode node = (JsonNode) current;
+                if (node.isMissingNode() || node.isNull()) {
+                    return 0L;
+                }
+                return node.isContainerNode() ? (long) node.size() : UNRESOLVED;
+            }
+            return UNRESOLVED;
+        }
+        return current;
+    }
+
+    /**
+     * The pointer for the segments from {@code start} to the end of the path.
+     * Pointers are immutable, so a race to build one just builds it twice.
+     */
+    private JsonPointer pointer(int start) {
+        JsonPointer pointer = pointers[start];
+        if (pointer == null) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = start; i < names.length; i++) {
+                sb.append('/').append(names[i]);
+                if (indices[i] != NO_INDEX) {
+                    sb.append('/').append(indices[i]);
+                }
+            }
+            pointer = JsonPointer.compile(sb.toString());
+            pointers[start] = pointer;
+        }
+        return pointer;
+    }
+
+    private static Object property(Object target, String name) {
+        if (target instanceof Map) {
+            return ((Map<?, ?>) target).get(name);
+        }
+        if (isCollection(target) || !isPlainBean(target.getClass())) {
+            return UNRESOLVED;
+        }
+        MethodHandle getter = GETTERS.get(target.getClass()).get(name);
+        if (getter == null) {
+            return UNRESOLVED;
+        }
+        try {
+            return getter.invokeExact(target);
+        } catch (Throwable t) {
+            return UNRESOLVED;
+        }
+    }
+
+    private static Object element(Object target, int index) {
+        if (target instanceof JsonNode) {
+            return ((JsonNode) target).path(index);
+        }
+        if (target instanceof List) {
+            List<?> list = (List<?>) target;
+            return index < list.size() ? list.get(index) : null;
+        }
+        if (target != null && target.getClass().isArray()) {
+            return index < Array.getLength(target) ? Array.get(target, index) : null;
+        }
+        return UNRESOLVED;
+    }
+
+    private static boolean isCollection(Object value) {
+        if (value instanceof JsonNode) {
+            return ((JsonNode) value).isArray();
+        }
+        return value instanceof Iterable || (value != null && value.getClass().isArray());
+    }
+
+    private static boolean isPlainBean(Class<?> type) {
+        String name = type.getName();
+        return Modifier.isPublic(type.getModifiers())
+                && !type.isPrimitive()
+                && !type.isEnum()
+                && !name.startsWith("java.")
+                && !name.startsWith("javax.")
+                && !name.startsWith("org.w3c.")
+                && !name.startsWith("org.jdom.")
+                && !name.startsWith("org.apache.commons.jxpath.");
+    }
+
+    private static Map<String, MethodHandle> findGetters(Class<?> type) {
+        Map<String, MethodHandle> getters = new HashMap<>();
+        try {
+            BeanInfo info = Introspector.getBeanInfo(type);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            for (PropertyDescriptor pd : info.getPropertyDescriptors()) {
+                Method read = pd.getReadMethod();
+                if (read == null || !Modifier.isPublic(read.getDeclaringClass().getModifiers())) {
+                    continue;
+                }
+                try {
+                    MethodHandle handle = lookup.unreflect(read)
+                            .asType(MethodType.methodType(Object.class, Object.class));
+                    getters.put(pd.getName(), handle);
+                } catch (IllegalAccessException e) {
+                    // leave it to JXPath
+                }
+            }
+        } catch (IntrospectionException e) {
+            return Collections.emptyMap();
+        }
+        return getters;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.robmoffat.support;
+
+import io.github.robmoffat.world.PropsWorld;
+
+/**
+ * What a step argument resolves to, worked out once per distinct argument string:
+ * a constant ({@code {null}}, {@code {true}}, {@code {false}} or a number such as
+ * {@code {42}}), a path into the world ({@code {account.balance}}), or the string itself.
+ */
+final class ResolvePlan {
+
+    private static final ResolvePlan NULL = new ResolvePlan(null, null);
+    private static final ResolvePlan TRUE = new ResolvePlan(Boolean.TRUE, null);
+    private static final ResolvePlan FALSE = new ResolvePlan(Boolean.FALSE, null);
+
+    private final Object constant;
+    private final PathExpression path;
+
+    private ResolvePlan(Object constant, PathExpression path) {
+        this.constant = constant;
+        this.path = path;
+    }
+
+    static ResolvePlan parse(String argument) {
+        int length = argument.length();
+        if (length < 2 || argument.charAt(0) != '{' || argument.charAt(length - 1) != '}') {
+            return new ResolvePlan(argument, null);
+        }
+        String stripped = argument.substring(1, length - 1);
+        switch (stripped) {
+            case "null":
+                return NULL;
+            case "true":
+                return TRUE;
+            case "false":
+                return FALSE;
+            default:
+                if (Numbers.isNumeric(stripped)) {
+                    return new ResolvePlan(Double.parseDouble(stripped), null);
+                }
+                return new ResolvePlan(null, MatchingUtils.pathExpression(stripped));
+        }
+    }
+
+    Object resolve(PropsWorld world) {
+        return path == null ? constant : MatchingUtils.extractFromWorld(world, path);
+    }
+}
@@ -0,0 +1,270 @@
+package io.github.robmoffat.support;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.stream.BaseStream;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * A read-once view over the things array assertions can be made on: {@link List}s,
+ * {@link Iterable}s, {@link java.util.stream.Stream}s, {@link Iterator}s, Java arrays
+ * and Jackson {@link ArrayNode}s.
+ * <p>
+ * Elements are read one at a time, so lazily produced results are never
+ * materialised unless a step needs random access. Primitive arrays are read
+ * directly rather than through {@link java.lang.reflect.Array}, and their length
+ * and string forms are available without boxing.
+ */
+public final class Sequence implements Iterable<Object> {
+
+    private static final Sequence EMPTY = new Sequence(Collections.emptyList(), 0);
+
+    private final Object source;
+    private final int knownSize;
+    private boolean consumed;
+
+    private Sequence(Object source, int knownSize) {
+        this.source = source;
+        this.knownSize = knownSize;
+    }
+
+    /**
+     * Wrap a value as a sequence. {@code null} is treated as empty.
+     */
+    public static Sequence of(Object source) {
+        if (source == null) {
+            return EMPTY;
+        }
+        if (source instanceof Sequence) {
+            return (Sequence) source;
+        }
+        if (source instanceof Collection) {
+            return new Sequence(source, ((Collection<?>) source).size());
+        }
+        if (source instanceof ArrayNode) {
+            return new Sequence(source, ((ArrayNode) source).size());
+        }
+        if (source instanceof Iterable || source instanceof Iterator) {
+            return new Sequence(source, -1);
+        }
+        if (source instanceof BaseStream) {
+            return new Sequence(((BaseStream<?, ?>) source).iterator(), -1);
+        }
+        if (source.getClass().isArray()) {
+            return new Sequence(source, java.lang.reflect.Array.getLength(source));
+        }
+        throw new IllegalArgumentException(
+                "Expected array, Iterable, Stream or Iterator, but got: " + source.getClass().getName());
+    }
+
+    /**
+     * The number of elements if it is known without reading them, otherwise -1.
+     */
+    public int knownSize() {
+        return knownSize;
+    }
+
+    /**
+     * Whether the elements can be read more than once (false for iterators and streams).
+     */
+    public boolean isRepeatable() {
+        return !(source instanceof Iterator);
+    }
+
+    /**
+     * A random-access list view of the elements, if the source is a {@link RandomAccess}
+     * list, an object array or an {@link ArrayNode}, otherwise null.
+     */
+    public List<?> asRandomAccess() {
+        if (source instanceof List && source instanceof RandomAccess) {
+            return (List<?>) source;
+        }
+        if (source instanceof Object[]) {
+            return Arrays.asList((Object[]) source);
+        }
+        if (source instanceof ArrayNode) {
+            ArrayNode array = (ArrayNode) source;
+            return new AbstractList<Object>() {
+                @Override
+                public Object get(int index) {
+                    return array.get(index);
+                }
+
+                @Override
+                public int size() {
+                    return array.size();
+                }
+            };
+        }
+        return null;
+    }
+
+    /**
+     * The wrapped value (an {@link Iterator} for streams).
+     */
+    public Object source() {
+        return source;
+    }
+
+    /**
+     * Count the elements, reading them only if the size isn't known.
+     */
+    public long count() {
+        if (knownSize >= 0) {
+            return knownSize;
+        }
+        long count = 0;
+        for (Iterator<Object> it = iterator(); it.hasNext(); it.next()) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<Object> iterator() {
+        if (source instanceof Iterable) {
+            return ((Iterable<Object>) source).iterator();
+        }
+        if (source instanceof Iterator) {
+            if (consumed) {
+                throw new IllegalStateException("This Iterator or Stream has already been read");
+            }
+            consumed = true;
+            return (Iterator<Object>) source;
+        }
+        return arrayIterator();
+    }
+
+    /**
+     * Iterate over the elements in the string form row matching compares them in:
+     * whole numbers without a fractional part, and {@code null} for null.
+     * Primitive arrays are formatted without boxing.
+     */
+    public Iterator<String> strings() {
+        if (!source.getClass().isArray() || source instanceof Object[]) {
+            Iterator<Object> objects = iterator();
+            return new Iterator<String>() {
+                @Override
+                public boolean hasNext() {
+                    return objects.hasNext();
+                }
+
+                @Override
+                public String next() {
+                    Object value = MatchingUtils.normalize(objects.next());
+                    return value == null ? null : String.valueOf(value);
+                }
+            };
+        }
+        return primitiveStrings();
+    }
+
+    private Iterator<Object> arrayIterator() {
+        if (source instanceof Object[]) {
+            Object[] a = (Object[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        if (source instanceof int[]) {
+            int[] a = (int[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        if (source instanceof long[]) {
+            long[] a = (long[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        if (source instanceof double[]) {
+            double[] a = (double[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        if (source instanceof float[]) {
+            float[] a = (float[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        if (source instanceof short[]) {
+            short[] a = (short[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        if (source instanceof byte[]) {
+            byte[] a = (byte[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        if (source instanceof char[]) {
+            char[] a = (char[]) source;
+            return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+        }
+        boolean[] a = (boolean[]) source;
+        return new ArrayIterator<Object>(a.length) { Object get(int i) { return a[i]; } };
+    }
+
+    private Iterator<String> primitiveStrings() {
+        if (source instanceof int[]) {
+            int[] a = (int[]) source;
+            return new ArrayIterator<String>(a.length) { String get(int i) { return Integer.toString(a[i]); } };
+        }
+        if (source instanceof long[]) {
+            long[] a = (long[]) source;
+            return new ArrayIterator<String>(a.length) { String get(int i) { return Long.toString(a[i]); } };
+        }
+        if (source instanceof double[]) {
+            double[] a = (double[]) source;
+            return new ArrayIterator<String>(a.length) { String get(int i) { return formatDouble(a[i]); } };
+        }
+        if (source instanceof float[]) {
+            float[] a = (float[]) source;
+            return new ArrayIterator<String>(a.length) { String get(int i) { return formatDouble(a[i]); } };
+        }
+        if (source instanceof short[]) {
+            short[] a = (short[]) source;
+            return new ArrayIterator<String>(a.length) { String get(int i) { return Short.toString(a[i]); } };
+        }
+        if (source instanceof byte[]) {
+            byte[] a = (byte[]) source;
+            return new ArrayIterator<String>(a.length) { String get(int i) { return Byte.toString(a[i]); } };
+        }
+        if (source instanceof char[]) {
+            char[] a = (char[]) source;
+            return new ArrayIterator<String>(a.length) { String get(int i) { return String.valueOf(a[i]); } };
+        }
+        boolean[] a = (boolean[]) source;
+        return new ArrayIterator<String>(a.length) { String get(int i) { return String.valueOf(a[i]); } };
+    }
+
+    private static String formatDouble(double d) {
+        if (d == Math.floor(d) && !Double.isInfinite(d)) {
+            return Long.toString((long) d);
+        }
+        return Double.toString(d);
+    }
+
+    private abstract static class ArrayIterator<T> implements Iterator<T> {
+        private final int length;
+        private int next;
+
+        ArrayIterator(int length) {
+            this.length = length;
+        }
+
+        abstract T get(int i);
+
+        @Override
+        public boolean hasNext() {
+            return next < length;
+        }
+
+        @Override
+        public T next() {
+            if (next >= length) {
+                throw new NoSuchElementException();
+            }
+            return get(next++);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package io.github.robmoffat.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds which of many phrases or regular expressions occur in a text.
+ * <p>
+ * Phrases are searched for together with an Aho-Corasick automaton, so the text is
+ * read once however many phrases there are, rather than once per phrase. Automata
+ * are cached by phrase list ({@code scs.phraseCache.size}, default 256) and compiled
+ * patterns by expression ({@code scs.patternCache.size}, default 1024), so a table or
+ * expression used again in a later step or scenario isn't rebuilt.
+ */
+public final class StringSearch {
+
+    private static final BoundedCache<List<String>, Automaton> automata =
+            new BoundedCache<>(BoundedCache.sizeFromProperty("scs.phraseCache.size", 256));
+
+    private static final BoundedCache<String, Pattern> patterns =
+            new BoundedCache<>(BoundedCache.sizeFromProperty("scs.patternCache.size", 1024));
+
+    private StringSearch() {
+    }
+
+    /**
+     * Where a phrase or pattern was first found.
+     */
+    public static final class Match {
+        private final String pattern;
+        private final int start;
+        private final int end;
+
+        Match(String pattern, int start, int end) {
+            this.pattern = pattern;
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return "'" + pattern + "' at " + start;
+        }
+    }
+
+    /**
+     * The first occurrence of each phrase that occurs in the text, in the order they occur.
+     */
+    public static List<Match> findPhrases(String text, List<String> phrases) {
+        return automata.get(phrases, Automaton::new).find(text);
+    }
+
+    /**
+     * The first match of each regular expression that matches somewhere in the text,
+     * in the order of the expressions.
+     */
+    public static List<Match> findPatterns(String text, List<String> regexes) {
+        List<Match> found = new ArrayList<>();
+        for (String regex : regexes) {
+            Matcher matcher = pattern(regex).matcher(text);
+            if (matcher.find()) {
+                found.add(new Match(regex, matcher.start(), matcher.end()));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The compiled pattern for a regular expression, shared between steps.
+     */
+    public static Pattern pattern(String regex) {
+        return patterns.get(regex, Pattern::compile);
+    }
+
+    /**
+     * A trie of the phrases, with each node linked to the node for its longest proper
+     * suffix that is also in the trie (where to carry on after a mismatch), and to the
+     * nearest such suffix that is a whole phrase (so every phrase ending at a position
+     * is found without walking the full suffix chain).
+     */
+    private static final class Automaton {
+        private static final char[] NO_KEYS = new char[0];
+        private static final int[] NO_CHILDREN = new int[0];
+
+        private final List<String> phrases;
+        /** Per node: its child keys, sorted, and the matching child nodes. */
+        private char[][] keys = new char[16][];
+        private int[][] children = new int[16][];
+        private int[] fail = new int[16];
+        private int[] output = new int[16];
+        /** The phrase ending at each node, or -1. */
+        private int[] phrase = new int[16];
+        private int size;
+        /** The number of different phrases. */
+        private int distinct;
+
+        Automaton(List<String> phrases) {
+            this.phrases = new ArrayList<>(phrases);
+            addNode();
+            for (int i = 0; i < this.phrases.size(); i++) {
+                String text = this.phrases.get(i);
+                int node = 0;
+                for (int j = 0; j < text.length(); j++) {
+                    int next = child(node, text.charAt(j));
+                    node = next >= 0 ? next : addChild(node, text.charAt(j));
+                }
+                if (phrase[node] < 0) {
+                    phrase[node] = i;
+                    distinct++;
+                }
+            }
+            link();
+        }
+
+        private int addNode() {
+            if (size == fail.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+                fail = Arrays.copyOf(fail, capacity);
+                output = Arrays.copyOf(output, capacity);
+                phrase = Arrays.copyOf(phrase, capacity);
+            }
+            keys[size] = NO_KEYS;
+            children[size] = NO_CHILDREN;
+            output[size] = -1;
+            phrase[size] = -1;
+            return size++;
+        }
+
+        private int addChild(int node, char c) {
+            int child = addNode();
+            char[] nodeKeys = keys[node];
+            int insert = -Arrays.binarySearch(nodeKeys, c) - 1;
+            char[] newKeys = new char[nodeKeys.length + 1];
+            int[] newChildren = new int[nodeKeys.length + 1];
+            System.arraycopy(nodeKeys, 0, newKeys, 0, insert);
+            System.arraycopy(children[node], 0, newChildren, 0, insert);
+            newKeys[insert] = c;
+            newChildren[insert] = child;
+            System.arraycopy(nodeKeys, insert, newKeys, insert + 1, nodeKeys.length - insert);
+            System.arraycopy(children[node], insert, newChildren, insert + 1, nodeKeys.length - insert);
+            keys[node] = newKeys;
+            children[node] = newChildren;
+            return child;
+        }
+
+        private int child(int node, char c) {
+            int i = Arrays.binarySearch(keys[node], c);
+            return i >= 0 ? children[node][i] : -1;
+        }
+
+        /**
+         * Set the suffix and output links breadth first, so a node's links are set
+         * before its children's.
+         */
+        private void link() {
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : children[0]) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.remove();
+                for (int i = 0; i < keys[node].length; i++) {
+                    char c = keys[node][i];
+                    int child = children[node][i];
+                    int suffix = fail[node];
+                    while (suffix > 0 && child(suffix, c) < 0) {
+                        suffix = fail[suffix];
+                    }
+                    int next = child(suffix, c);
+                    fail[child] = next >= 0 ? next : 0;
+                    output[child] = phrase[fail[child]] >= 0 ? fail[child] : output[fail[child]];
+                    queue.add(child);
+                }
+            }
+        }
+
+        List<Match> find(String text) {
+            Match[] first = new Match[phrases.size()];
+            int remaining = distinct;
+            if (phrase[0] >= 0) {
+                // the empty phrase
+                first[phrase[0]] = new Match("", 0, 0);
+                remaining--;
+            }
+            int node = 0;
+            for (int i = 0; i < text.length() && remaining > 0; i++) {
+                char c = text.charAt(i);
+                int next = child(node, c);
+                while (next < 0 && node > 0) {
+                    node = fail[node];
+                    next = child(node, c);
+                }
+                node = next >= 0 ? next : 0;
+                for (int hit = phrase[node] >= 0 ? node : output[node]; hit > 0; hit = output[hit]) {
+                    int p = phrase[hit];
+                    if (first[p] == null) {
+                        String found = phrases.get(p);
+                        first[p] = new Match(found, i + 1 - found.length(), i + 1);
+                        remaining--;
+                    }
+                }
+            }
+            List<Match> found = new ArrayList<>();
+            for (Match match : first) {
+                if (match != null) {
+                    found.add(match);
+                }
+            }
+            found.sort(Comparator.comparingInt(Match::getStart));
+            return Collections.unmodifiableList(found);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.robmoffat.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pairs expected rows with elements, ignoring order, so that as many as possible
+ * are matched.
+ * <p>
+ * Rows with equal values form one class, and classes are grouped by the
+ * {@link Values#hashKey}s of their values, so an element is only compared with the
+ * classes under its own key. When every element in a group matches exactly one
+ * class, which is the usual case, pairing up is just counting. Only a group where
+ * some element matches several classes (say {@code 1} against rows {@code "1"}
+ * and {@code "1.0"}) needs a bipartite matching, and only over that group.
+ * <p>
+ * {@link #candidates} only reads, so elements can be compared on several threads;
+ * {@link #add} and {@link #finish} must be called from one.
+ */
+final class UnorderedMatch {
+
+    private static final int[] NONE = new int[0];
+
+    /** The resolved values of each class, its rows in table order, and its group. */
+    private final List<List<Object>> classValues = new ArrayList<>();
+    private final List<List<Integer>> classRows = new ArrayList<>();
+    private final List<Integer> classGroup = new ArrayList<>();
+    /** Class numbers by the hash keys of their values. */
+    private final Map<List<Object>, List<Integer>> groups = new HashMap<>();
+    /** Rows that can't match anything. */
+    private final List<Integer> unresolvable = new ArrayList<>();
+
+    /** Per class, the elements that match only that class. */
+    private final List<List<Integer>> soleMatches = new ArrayList<>();
+    /** Per group, the elements that match more than one class, or null if there are none. */
+    private final List<List<Element>> ambiguous = new ArrayList<>();
+    private final List<Integer> unmatchedElements = new ArrayList<>();
+
+    private static final class Element {
+        final int position;
+        final int[] classes;
+
+        Element(int position, int[] classes) {
+            this.position = position;
+            this.classes = classes;
+        }
+    }
+
+    /**
+     * @param expected each row's resolved values, or null for rows that can't match anything
+     */
+    UnorderedMatch(List<List<Object>> expected) {
+        Map<List<Object>, Integer> classOf = new HashMap<>();
+        for (int row = 0; row < expected.size(); row++) {
+            List<Object> values = expected.get(row);
+            if (values == null) {
+                unresolvable.add(row);
+                continue;
+            }
+            Integer c = classOf.get(values);
+            if (c == null) {
+                c = classValues.size();
+                classOf.put(values, c);
+                List<Integer> group = groups.computeIfAbsent(MatchingUtils.hashKeys(values), k -> {
+                    ambiguous.add(null);
+                    return new ArrayList<>(1);
+                });
+                group.add(c);
+                classValues.add(values);
+                classRows.add(new ArrayList<>(1));
+                classGroup.add(ambiguous.size() - 1);
+                soleMatches.add(new ArrayList<>(1));
+            }
+            classRows.get(c).add(row);
+        }
+    }
+
+    /**
+     * The classes a projected element matches, or none if it couldn't be projected.
+     */
+    int[] candidates(List<Object> values) {
+        if (values == null) {
+            return NONE;
+        }
+        List<Integer> group = groups.get(MatchingUtils.hashKeys(values));
+        if (group == null) {
+            return NONE;
+        }
+        int[] matches = NONE;
+        for (int c : group) {
+            if (MatchingUtils.allEquivalent(values, classValues.get(c))) {
+                matches = Arrays.copyOf(matches, matches.length + 1);
+                matches[matches.length - 1] = c;
+            }
+        }
+        return matches;
+    }
+
+    void add(int position, int[] candidates) {
+        if (candidates.length == 0) {
+            unmatchedElements.add(position);
+        } else if (candidates.length == 1) {
+            soleMatches.get(candidates[0]).add(position);
+        } else {
+            int group = classGroup.get(candidates[0]);
+            if (ambiguous.get(group) == null) {
+                ambiguous.set(group, new ArrayList<>());
+            }
+            ambiguous.get(group).add(new Element(position, candidates));
+        }
+    }
+
+    /**
+     * Pair up the elements added so far with the rows.
+     */
+    Result finish() {
+        List<Integer> rows = new ArrayList<>(unresolvable);
+        List<Integer> elements = new ArrayList<>(unmatchedElements);
+        for (int c = 0; c < classValues.size(); c++) {
+            if (ambiguous.get(classGroup.get(c)) == null) {
+                List<Integer> classRowList = classRows.get(c);
+                List<Integer> matches = soleMatches.get(c);
+                int paired = Math.min(classRowList.size(), matches.size());
+                rows.addAll(classRowList.subList(paired, classRowList.size()));
+                elements.addAll(matches.subList(paired, matches.size()));
+            }
+        }
+        for (List<Integer> group : groups.values()) {
+            List<Element> groupAmbiguous = ambiguous.get(classGroup.get(group.get(0)));
+            if (groupAmbiguous != null) {
+                assign(group, groupAmbiguous, rows, elements);
+            }
+        }
+        Collections.sort(rows);
+        Collections.sort(elements);
+        return new Result(rows, elements);
+    }
+
+    /**
+     * Maximum bipartite matching between a group's elements and its classes, where a
+     * class takes as many elements as it has rows, by augmenting paths.
+     */
+    private void assign(List<Integer> group, List<Element> groupAmbiguous, List<Integer> rows, List<Integer> elements) {
+        List<Element> groupElements = new ArrayList<>();
+        for (int c : group) {
+            for (int position : soleMatches.get(c)) {
+                groupElements.add(new Element(position, new int[] {c}));
+            }
+        }
+        groupElements.addAll(groupAmbiguous);
+
+        Map<Integer, List<Element>> assigned = new HashMap<>();
+        for (int c : group) {
+            assigned.put(c, new ArrayList<>());
+        }
+        for (Element element : groupElements) {
+            if (!augment(element, assigned, new BitSet())) {
+                elements.add(element.position);
+            }
+        }
+        for (int c : group) {
+            List<Integer> classRowList = classRows.get(c);
+            rows.addAll(classRowList.subList(assigned.get(c).size(), classRowList.size()));
+        }
+    }
+
+    private boolean augment(Element element, Map<Integer, List<Element>> assigned, BitSet visited) {
+        for (int c : element.classes) {
+            if (visited.get(c)) {
+                continue;
+            }
+            visited.set(c);
+            List<Element> holders = assigned.get(c);
+            if (holders.size() < classRows.get(c).size()) {
+                holders.add(element);
+                return true;
+            }
+            for (int i = 0; i < holders.size(); i++) {
+                if (augment(holders.get(i), assigned, visited)) {
+                    holders.set(i, element);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The rows and element positions left over once as many as possible were paired, in order.
+     */
+    static final class Result {
+        final List<Integer> unmatchedRows;
+        final List<Integer> unmatchedElements;
+
+        Result(List<Integer> unmatchedRows, List<Integer> unmatchedElements) {
+            this.unmatchedRows = unmatchedRows;
+            this.unmatchedElements = unmatchedElements;
+        }
+
+        boolean isComplete() {
+            return unmatchedRows.isEmpty() && unmatchedElements.isEmpty();
+        }
+    }
+}
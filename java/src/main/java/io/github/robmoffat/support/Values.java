@@ -0,0 +1,251 @@
+package io.github.robmoffat.support;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Equality between an actual value and an expected one, as the matching steps see it.
+ * <p>
+ * Numbers compare by value, so {@code 100}, {@code 100.0} and {@code "100"} are all
+ * equal, and a whole {@code double} equals the same {@code long}. Strings, booleans
+ * and characters compare directly. Anything else falls back to comparing
+ * {@link String#valueOf} forms, which is what every comparison used to do.
+ */
+public final class Values {
+
+    /**
+     * Integers with more digits than this might not fit in a {@code long}.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private Values() {
+    }
+
+    public static boolean equivalent(Object actual, Object expected) {
+        if (actual == expected) {
+            return true;
+        }
+        if (actual == null || expected == null) {
+            return false;
+        }
+        if (actual instanceof String && expected instanceof String) {
+            return actual.equals(expected);
+        }
+        if (actual instanceof Number) {
+            return numberEquals((Number) actual, expected);
+        }
+        if (expected instanceof Number) {
+            return numberEquals((Number) expected, actual);
+        }
+        if (actual instanceof Boolean) {
+            return booleanEquals((Boolean) actual, expected);
+        }
+        if (expected instanceof Boolean) {
+            return booleanEquals((Boolean) expected, actual);
+        }
+        if (actual instanceof Character && expected instanceof String) {
+            return charEquals((Character) actual, (String) expected);
+        }
+        if (expected instanceof Character && actual instanceof String) {
+            return charEquals((Character) expected, (String) actual);
+        }
+        return String.valueOf(actual).equals(String.valueOf(expected));
+    }
+
+    /**
+     * A key for hashing values so that {@link #equivalent} values share a key: numbers
+     * and numeric strings become the {@code Long} or {@code Double} they stand for,
+     * everything else its string form. Different values can share a key too, so
+     * anything found under a key still needs checking with {@link #equivalent}.
+     */
+    public static Object hashKey(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            String text = (String) value;
+            return isPlainNumber(text) ? numericKey(Double.parseDouble(text)) : text;
+        }
+        if (value instanceof Float) {
+            // so 1.1f shares a key with "1.1" and 1.1d, which it's equivalent to
+            return numericKey(Double.parseDouble(value.toString()));
+        }
+        if (value instanceof Number) {
+            return numericKey(((Number) value).doubleValue());
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Longs beyond 2^53 go through the same rounding as their text does, so they still share a key.
+     */
+    private static Object numericKey(double d) {
+        if (d == Math.rint(d) && d >= -0x1p63 && d < 0x1p63) {
+            return (long) d;
+        }
+        return d;
+    }
+
+    private static boolean numberEquals(Number number, Object other) {
+        if (other instanceof Number) {
+            return numbersEqual(number, (Number) other);
+        }
+        if (other instanceof String) {
+            return numberEqualsText(number, (String) other);
+        }
+        return String.valueOf(number).equals(String.valueOf(other));
+    }
+
+    private static boolean booleanEquals(Boolean value, Object other) {
+        if (other instanceof Boolean) {
+            return value.equals(other);
+        }
+        if (other instanceof String) {
+            return (value ? "true" : "false").equals(other);
+        }
+        return String.valueOf(value).equals(String.valueOf(other));
+    }
+
+    private static boolean charEquals(Character value, String text) {
+        return text.length() == 1 && text.charAt(0) == value;
+    }
+
+    private static boolean numbersEqual(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) {
+            return a.longValue() == b.longValue();
+        }
+        if (isBig(a) || isBig(b)) {
+            BigDecimal x = toBigDecimal(a);
+            BigDecimal y = toBigDecimal(b);
+            return x != null && y != null ? x.compareTo(y) == 0 : a.doubleValue() == b.doubleValue();
+        }
+        if (!isPrimitive(a) || !isPrimitive(b)) {
+            return String.valueOf(a).equals(String.valueOf(b));
+        }
+        if (isIntegral(a)) {
+            return doubleEqualsLong(b.doubleValue(), a.longValue());
+        }
+        if (isIntegral(b)) {
+            return doubleEqualsLong(a.doubleValue(), b.longValue());
+        }
+        if (a instanceof Float || b instanceof Float) {
+            // a float only has a float's worth of digits, so compare at that precision
+            return floatsEqual(a.floatValue(), b.floatValue());
+        }
+        return doublesEqual(a.doubleValue(), b.doubleValue());
+    }
+
+    private static boolean numberEqualsText(Number number, String text) {
+        if (isIntegral(number)) {
+            long value = number.longValue();
+            int digits = integerDigits(text);
+            if (digits > MAX_LONG_DIGITS) {
+                return new BigDecimal(text).compareTo(BigDecimal.valueOf(value)) == 0;
+            }
+            if (digits > 0) {
+                return parseLong(text) == value;
+            }
+            return isPlainNumber(text) && doubleEqualsLong(Double.parseDouble(text), value);
+        }
+        if (number instanceof Double) {
+            return isPlainNumber(text) && doublesEqual(number.doubleValue(), Double.parseDouble(text));
+        }
+        if (number instanceof Float) {
+            return isPlainNumber(text) && floatsEqual(number.floatValue(), (float) Double.parseDouble(text));
+        }
+        if (isBig(number)) {
+            try {
+                return toBigDecimal(number).compareTo(new BigDecimal(text)) == 0;
+            } catch (NumberFormatException e) {
+                return text.equals(String.valueOf(number));
+            }
+        }
+        return text.equals(String.valueOf(number));
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte
+                || n instanceof AtomicLong || n instanceof AtomicInteger;
+    }
+
+    private static boolean isPrimitive(Number n) {
+        return isIntegral(n) || n instanceof Double || n instanceof Float;
+    }
+
+    private static boolean isBig(Number n) {
+        return n instanceof BigDecimal || n instanceof BigInteger;
+    }
+
+    /**
+     * The number as a {@link BigDecimal}, or null for NaN, infinities and unknown types.
+     */
+    private static BigDecimal toBigDecimal(Number n) {
+        if (n instanceof BigDecimal) {
+            return (BigDecimal) n;
+        }
+        if (n instanceof BigInteger) {
+            return new BigDecimal((BigInteger) n);
+        }
+        if (isIntegral(n)) {
+            return BigDecimal.valueOf(n.longValue());
+        }
+        if (isPrimitive(n) && Double.isFinite(n.doubleValue())) {
+            return new BigDecimal(n instanceof Float ? Float.toString(n.floatValue()) : Double.toString(n.doubleValue()));
+        }
+        return null;
+    }
+
+    private static boolean doubleEqualsLong(double d, long l) {
+        // (double) l would round large longs, so go the other way when d is whole and in range
+        return d == Math.rint(d) && d >= -0x1p63 && d < 0x1p63 && (long) d == l;
+    }
+
+    private static boolean doublesEqual(double a, double b) {
+        return a == b || (a != a && b != b);
+    }
+
+    private static boolean floatsEqual(float a, float b) {
+        return a == b || (a != a && b != b);
+    }
+
+    /**
+     * The number of digits if the text is an optionally negative decimal integer, otherwise -1.
+     */
+    private static int integerDigits(String text) {
+        int i = text.startsWith("-") ? 1 : 0;
+        int digits = text.length() - i;
+        if (digits == 0) {
+            return -1;
+        }
+        for (; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return digits;
+    }
+
+    private static long parseLong(String text) {
+        boolean negative = text.charAt(0) == '-';
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < text.length(); i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * A number written the way a number is printed: no surrounding whitespace or type suffix.
+     */
+    private static boolean isPlainNumber(String text) {
+        if (text.isEmpty() || !Numbers.isNumeric(text)) {
+            return false;
+        }
+        char first = text.charAt(0);
+        char last = text.charAt(text.length() - 1);
+        return first > ' ' && last > ' ' && "fFdD".indexOf(last) < 0;
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.robmoffat.world;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A {@link ConcurrentHashMap}-backed props map that, unlike {@code ConcurrentHashMap},
+ * accepts null values, since steps routinely store {@code {null}} and null results.
+ * <p>
+ * Reads are lock-free, iteration is weakly consistent (never throws
+ * {@link java.util.ConcurrentModificationException}), and the compute/merge family
+ * is atomic per key.
+ */
+final class ConcurrentProps extends AbstractMap<String, Object> {
+
+    private static final Object NULL = new Object() {
+        @Override
+        public String toString() {
+            return "null";
+        }
+    };
+
+    private final ConcurrentHashMap<String, Object> map = new ConcurrentHashMap<>();
+
+    private static Object mask(Object value) {
+        return value == null ? NULL : value;
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL ? null : value;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return map.containsValue(mask(value));
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key == null ? null : unmask(map.get(key));
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return unmask(map.put(key, mask(value)));
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key == null ? null : unmask(map.remove(key));
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return map.keySet();
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        return unmask(map.putIfAbsent(key, mask(value)));
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remapping) {
+        return map.compute(key, (k, v) -> remapping.apply(k, unmask(v)));
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mapping) {
+        Object existing = map.get(key);
+        if (existing != null && existing != NULL) {
+            return existing;
+        }
+        return unmask(map.compute(key, (k, v) -> {
+            if (v != null && v != NULL) {
+                return v;
+            }
+            Object created = mapping.apply(k);
+            return created == null ? v : created;
+        }));
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remapping) {
+        Object existing = map.get(key);
+        if (existing == null || existing == NULL) {
+            return null;
+        }
+        return unmask(map.computeIfPresent(key, (k, v) -> v == NULL ? v : remapping.apply(k, unmask(v))));
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remapping) {
+        return map.merge(key, value, (old, v) -> old == NULL ? v : remapping.apply(old, v));
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                Iterator<Entry<String, Object>> entries = map.entrySet().iterator();
+                return new Iterator<Entry<String, Object>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        Entry<String, Object> e = entries.next();
+                        return new SimpleImmutableEntry<>(e.getKey(), unmask(e.getValue()));
+                    }
+
+                    @Override
+                    public void remove() {
+                        entries.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,247 @@
+package io.github.robmoffat.world;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A scenario's props: a local map laid over the {@link SharedFixtures}.
+ * <p>
+ * Reads fall through to the shared fixtures for keys the scenario hasn't written.
+ * Writes go to the local map. Removing a shared key records a tombstone, and
+ * {@link #clear()} hides the shared fixtures altogether, so the map behaves as if
+ * the fixtures had been copied into it, without copying them.
+ */
+final class OverlayProps extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> local;
+    private final Set<String> removed;
+    private volatile boolean cleared;
+
+    OverlayProps(Map<String, Object> local, boolean concurrent) {
+        this.local = local;
+        this.removed = concurrent ? ConcurrentHashMap.newKeySet() : new HashSet<>();
+    }
+
+    /**
+     * A copy of these props held in a {@link ConcurrentProps}, with the same
+     * removals and the shared fixtures hidden if these were cleared.
+     */
+    OverlayProps concurrentCopy() {
+        OverlayProps copy = new OverlayProps(new ConcurrentProps(), true);
+        copy.local.putAll(local);
+        copy.removed.addAll(removed);
+        copy.cleared = cleared;
+        return copy;
+    }
+
+    /**
+     * The shared fixtures this scenario can still see.
+     */
+    private Map<String, Object> base() {
+        return cleared ? Collections.emptyMap() : SharedFixtures.get();
+    }
+
+    private boolean inBase(Map<String, Object> base, Object key) {
+        return base.containsKey(key) && !removed.contains(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object value = local.get(key);
+        if (value != null || local.containsKey(key)) {
+            return value;
+        }
+        Map<String, Object> base = base();
+        return inBase(base, key) ? base.get(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return local.containsKey(key) || inBase(base(), key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        Object previous = get(key);
+        local.put(key, value);
+        removed.remove(key);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        Object previous = get(key);
+        local.remove(key);
+        if (base().containsKey(key)) {
+            removed.add((String) key);
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+        cleared = true;
+        removed.clear();
+    }
+
+    @Override
+    public int size() {
+        Map<String, Object> base = base();
+        if (base.isEmpty()) {
+            return local.size();
+        }
+        int size = local.size();
+        for (String key : base.keySet()) {
+            if (!local.containsKey(key) && !removed.contains(key)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return local.isEmpty() && size() == 0;
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remapping) {
+        Object result = local.compute(key, (k, v) -> remapping.apply(k,
+                v != null || local.containsKey(k) ? v : fromBase(k)));
+        if (result == null) {
+            if (base().containsKey(key)) {
+                removed.add(key);
+            }
+        } else {
+            removed.remove(key);
+        }
+        return result;
+    }
+
+    private Object fromBase(String key) {
+        Map<String, Object> base = base();
+        return inBase(base, key) ? base.get(key) : null;
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mapping) {
+        Object value = get(key);
+        if (value != null) {
+            return value;
+        }
+        return compute(key, (k, current) -> current != null ? current : mapping.apply(k));
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remapping) {
+        if (get(key) == null) {
+            return null;
+        }
+        return compute(key, (k, current) -> current == null ? null : remapping.apply(k, current));
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remapping) {
+        return compute(key, (k, current) -> current == null ? value : remapping.apply(current, value));
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        if (value == null) {
+            Object current = get(key);
+            if (current == null) {
+                put(key, null);
+            }
+            return current;
+        }
+        Object[] previous = new Object[1];
+        compute(key, (k, current) -> {
+            previous[0] = current;
+            return current != null ? current : value;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new OverlayIterator();
+            }
+
+            @Override
+            public int size() {
+                return OverlayProps.this.size();
+            }
+        };
+    }
+
+    /**
+     * Iterates over the local entries, then the shared entries that aren't shadowed or removed.
+     */
+    private final class OverlayIterator implements Iterator<Entry<String, Object>> {
+        private final Iterator<Entry<String, Object>> localEntries = local.entrySet().iterator();
+        private final Iterator<Entry<String, Object>> baseEntries = base().entrySet().iterator();
+        private Entry<String, Object> nextBase;
+        private String lastKey;
+        private boolean lastWasLocal;
+
+        @Override
+        public boolean hasNext() {
+            return localEntries.hasNext() || advanceBase();
+        }
+
+        private boolean advanceBase() {
+            while (nextBase == null && baseEntries.hasNext()) {
+                Entry<String, Object> candidate = baseEntries.next();
+                if (!local.containsKey(candidate.getKey()) && !removed.contains(candidate.getKey())) {
+                    nextBase = candidate;
+                }
+            }
+            return nextBase != null;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (localEntries.hasNext()) {
+                Entry<String, Object> entry = localEntries.next();
+                lastKey = entry.getKey();
+                lastWasLocal = true;
+                return entry;
+            }
+            if (!advanceBase()) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Object> entry = nextBase;
+            nextBase = null;
+            lastKey = entry.getKey();
+            lastWasLocal = false;
+            return new SimpleImmutableEntry<>(entry);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            if (lastWasLocal) {
+                localEntries.remove();
+            }
+            if (base().containsKey(lastKey)) {
+                removed.add(lastKey);
+            }
+            lastKey = null;
+        }
+    }
+}
@@ -4,6 +4,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import io.cucumber.java.Scenario;
 import org.slf4j.Logger;
@@ -11,13 +14,44 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Cucumber World class that holds test state in a props map.
+ * <p>
+ * With {@code -Dscs.world.concurrent=true} the props are held in a concurrent map,
+ * so jobs started with {@code I start job} can read and write the world while the
+ * scenario thread does: reads don't lock, iteration never throws
+ * {@link java.util.ConcurrentModificationException}, and {@link #compute},
+ * {@link #merge} and {@link #counter} are atomic per key.
+ * <p>
+ * Every world starts out containing the {@link SharedFixtures}. They are read through
+ * rather than copied in; writing, removing or clearing only changes this world.
  */
 public class PropsWorld implements Map<String, Object> {
 
     private static final Logger logger = LoggerFactory.getLogger(PropsWorld.class);
 
-    private final Map<String, Object> props = new HashMap<>();
+    private volatile boolean concurrent = Boolean.getBoolean("scs.world.concurrent");
+    private volatile OverlayProps props =
+            new OverlayProps(concurrent ? new ConcurrentProps() : new HashMap<>(), concurrent);
     private Scenario scenario;
+    private final ThreadLocal<Boolean> muted = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    /**
+     * Whether the props are held in a thread-safe map (see {@code scs.world.concurrent}).
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * Hold the props in a thread-safe map from now on, as if {@code scs.world.concurrent}
+     * were set, keeping what has been written so far. Call it before starting any jobs,
+     * for example from a tagged {@code @Before} hook.
+     */
+    public synchronized void useConcurrentProps() {
+        if (!concurrent) {
+            props = props.concurrentCopy();
+            concurrent = true;
+        }
+    }
 
     public Map<String, Object> getProps() {
         return props;
@@ -35,6 +69,28 @@ public class PropsWorld implements Map<String, Object> {
         return props.containsKey(key);
     }
 
+    /**
+     * Return the counter stored under the key, creating it at zero if there is none.
+     * A number already stored there becomes the counter's starting value.
+     * Counters are {@link Number}s, so they resolve and compare like any other number.
+     */
+    public AtomicLong counter(String key) {
+        Object value = props.get(key);
+        if (value instanceof AtomicLong) {
+            return (AtomicLong) value;
+        }
+        return (AtomicLong) props.compute(key, (k, existing) -> {
+            if (existing instanceof AtomicLong) {
+                return existing;
+            }
+            if (existing == null || existing instanceof Number) {
+                return new AtomicLong(existing == null ? 0 : ((Number) existing).longValue());
+            }
+            throw new IllegalStateException(
+                    "Cannot use " + key + " as a counter, it holds: " + existing.getClass().getName());
+        });
+    }
+
     public void setScenario(Scenario scenario) {
         this.scenario = scenario;
     }
@@ -44,12 +100,29 @@ public class PropsWorld implements Map<String, Object> {
     }
 
     public void log(String message) {
+        if (muted.get()) {
+            return;
+        }
         logger.info(message);
         if (scenario != null) {
             scenario.log(message);
         }
     }
 
+    /**
+     * Run the action without logging anything it logs on this thread, for checks that
+     * are expected to fail a few times before they pass.
+     */
+    public void withoutLogging(Runnable action) {
+        boolean wasMuted = muted.get();
+        muted.set(true);
+        try {
+            action.run();
+        } finally {
+            muted.set(wasMuted);
+        }
+    }
+
     public void attach(byte[] data, String mediaType, String name) {
         if (scenario != null) {
             scenario.attach(data, mediaType, name);
@@ -107,6 +180,31 @@ public class PropsWorld implements Map<String, Object> {
         props.clear();
     }
 
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        return props.putIfAbsent(key, value);
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remapping) {
+        return props.compute(key, remapping);
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mapping) {
+        return props.computeIfAbsent(key, mapping);
+    }
+
+    @Override
+    public Object computeIfPresent(String key, BiFunction<? super String, ? super Object, ?> remapping) {
+        return props.computeIfPresent(key, remapping);
+    }
+
+    @Override
+    public Object merge(String key, Object value, BiFunction<? super Object, ? super Object, ?> remapping) {
+        return props.merge(key, value, remapping);
+    }
+
     @Override
     public Set<String> keySet() {
         return props.keySet();
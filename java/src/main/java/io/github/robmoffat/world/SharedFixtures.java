@@ -0,0 +1,73 @@
+package io.github.robmoffat.world;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Fixtures registered once per JVM and visible in every scenario's {@link PropsWorld}.
+ * <p>
+ * Each world reads through to these fixtures until a scenario writes or removes the
+ * same key, which only affects that scenario. The fixture values themselves are
+ * shared by every scenario (and every thread, if scenarios run in parallel), so they
+ * should be immutable: {@code List.of}, {@code Map.of}, stateless functions and the like.
+ *
+ * <pre>
+ * &#64;Before
+ * public void setup() {
+ *     SharedFixtures.initialize(fixtures -&gt; {
+ *         fixtures.put("products", loadProducts());
+ *         fixtures.put("calculator", new Calculator());
+ *     });
+ * }
+ * </pre>
+ */
+public final class SharedFixtures {
+
+    private static volatile Map<String, Object> fixtures = Collections.emptyMap();
+    private static boolean initialized;
+
+    private SharedFixtures() {
+    }
+
+    /**
+     * Run the setup the first time this is called, and do nothing after that.
+     * Returns true if the setup ran.
+     */
+    public static synchronized boolean initialize(Consumer<Map<String, Object>> setup) {
+        if (initialized) {
+            return false;
+        }
+        Map<String, Object> added = new HashMap<>();
+        setup.accept(added);
+        registerAll(added);
+        initialized = true;
+        return true;
+    }
+
+    public static synchronized void register(String key, Object value) {
+        registerAll(Collections.singletonMap(key, value));
+    }
+
+    public static synchronized void registerAll(Map<String, ?> values) {
+        Map<String, Object> next = new HashMap<>(fixtures);
+        next.putAll(values);
+        fixtures = Collections.unmodifiableMap(next);
+    }
+
+    /**
+     * Remove every fixture, so {@link #initialize} will run again.
+     */
+    public static synchronized void clear() {
+        fixtures = Collections.emptyMap();
+        initialized = false;
+    }
+
+    /**
+     * The current fixtures, as an unmodifiable map.
+     */
+    public static Map<String, Object> get() {
+        return fixtures;
+    }
+}
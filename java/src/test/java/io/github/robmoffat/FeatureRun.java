@@ -0,0 +1,69 @@
+package io.github.robmoffat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.launcher.EngineFilter;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PARALLEL_CONFIG_FIXED_PARALLELISM_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PUBLISH_QUIET_PROPERTY_NAME;
+
+/**
+ * Runs feature files through the Cucumber engine in this JVM, with the same glue as
+ * {@link RunCucumberTest}, and collects each scenario's outcome.
+ */
+public final class FeatureRun {
+
+    private FeatureRun() {
+    }
+
+    /**
+     * Run the features in the given directories on a fixed number of threads (one
+     * means one scenario at a time) and return each scenario's status, keyed by its
+     * unique ID in a sorted map.
+     */
+    public static Map<String, String> run(List<String> featureDirectories, int threads) {
+        LauncherDiscoveryRequestBuilder builder = LauncherDiscoveryRequestBuilder.request()
+                .filters(EngineFilter.includeEngines("cucumber"))
+                .configurationParameter(GLUE_PROPERTY_NAME, RunCucumberTest.GLUE)
+                .configurationParameter(RunCucumberTest.ISOLATED, RunCucumberTest.GLOBAL_LOCK)
+                .configurationParameter(PLUGIN_PUBLISH_QUIET_PROPERTY_NAME, "true")
+                .configurationParameter(PARALLEL_EXECUTION_ENABLED_PROPERTY_NAME, String.valueOf(threads > 1))
+                .configurationParameter(PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME, "fixed")
+                .configurationParameter(PARALLEL_CONFIG_FIXED_PARALLELISM_PROPERTY_NAME, String.valueOf(threads));
+        for (String directory : featureDirectories) {
+            builder.selectors(DiscoverySelectors.selectDirectory(directory));
+        }
+        LauncherDiscoveryRequest request = builder.build();
+
+        Map<String, String> outcomes = new ConcurrentHashMap<>();
+        LauncherFactory.create().execute(request, new TestExecutionListener() {
+            @Override
+            public void executionFinished(TestIdentifier test, TestExecutionResult result) {
+                if (test.isTest()) {
+                    outcomes.put(test.getUniqueId(), result.getStatus().name());
+                }
+            }
+
+            @Override
+            public void executionSkipped(TestIdentifier test, String reason) {
+                if (test.isTest()) {
+                    outcomes.put(test.getUniqueId(), "SKIPPED");
+                }
+            }
+        });
+        return new TreeMap<>(outcomes);
+    }
+}
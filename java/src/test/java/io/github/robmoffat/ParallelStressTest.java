@@ -0,0 +1,54 @@
+package io.github.robmoffat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the shared features one scenario at a time, then several times on many
+ * threads, and checks every scenario ends the same way each time. Only runs with
+ * {@code -Pstress}; {@code scs.stress.threads} (default 16), {@code scs.stress.rounds}
+ * (default 5) and {@code scs.stress.features} (default {@code ../features}) tune it.
+ */
+@Tag("stress")
+class ParallelStressTest {
+
+    private static final List<String> FEATURES =
+            Arrays.asList(System.getProperty("scs.stress.features", "../features").split(","));
+    private static final int THREADS = Integer.getInteger("scs.stress.threads", 16);
+    private static final int ROUNDS = Integer.getInteger("scs.stress.rounds", 5);
+
+    @Test
+    void scenariosEndTheSameWayOnManyThreads() {
+        Map<String, String> serial = FeatureRun.run(FEATURES, 1);
+        assertFalse(serial.isEmpty(), "No scenarios found in " + FEATURES);
+        for (int round = 1; round <= ROUNDS; round++) {
+            Map<String, String> parallel = FeatureRun.run(FEATURES, THREADS);
+            List<String> differences = differences(serial, parallel);
+            assertTrue(differences.isEmpty(), "Round " + round + " on " + THREADS + " threads differed from the serial run:\n  "
+                    + String.join("\n  ", differences));
+        }
+    }
+
+    private static List<String> differences(Map<String, String> expected, Map<String, String> actual) {
+        TreeSet<String> ids = new TreeSet<>(expected.keySet());
+        ids.addAll(actual.keySet());
+        List<String> differences = new ArrayList<>();
+        for (String id : ids) {
+            String before = expected.get(id);
+            String after = actual.get(id);
+            if (before == null || !before.equals(after)) {
+                differences.add(id + ": " + before + " -> " + after);
+            }
+        }
+        return differences;
+    }
+}
@@ -8,10 +8,20 @@ import static io.cucumber.junit.platform.engine.Constants.FEATURES_PROPERTY_NAME
 import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
 import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
 
+/**
+ * Runs the shared and Java-specific features. Scenarios run one at a time unless the
+ * {@code parallel} profile is active; then scenarios tagged {@code @isolated} take the
+ * global lock, so nothing else runs alongside them.
+ */
 @Suite
 @IncludeEngines("cucumber")
 @ConfigurationParameter(key = FEATURES_PROPERTY_NAME, value = "../features,features")
-@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "io.github.robmoffat,io.github.robmoffat.steps")
-@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = RunCucumberTest.GLUE)
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty,io.github.robmoffat.steps.MetricsPlugin:target/scs-metrics")
+@ConfigurationParameter(key = RunCucumberTest.ISOLATED, value = RunCucumberTest.GLOBAL_LOCK)
 public class RunCucumberTest {
+
+    static final String GLUE = "io.github.robmoffat,io.github.robmoffat.steps";
+    static final String ISOLATED = "cucumber.execution.exclusive-resources.isolated.read-write";
+    static final String GLOBAL_LOCK = "org.junit.platform.engine.support.hierarchical.ExclusiveResource.GLOBAL_KEY";
 }
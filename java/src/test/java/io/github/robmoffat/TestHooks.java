@@ -1,19 +1,43 @@
 package io.github.robmoffat;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.github.robmoffat.steps.GenericSteps.FourArgFunction;
 import io.github.robmoffat.steps.GenericSteps.ThreeArgFunction;
+import io.github.robmoffat.support.JobExecutor;
+import io.github.robmoffat.support.MatchingUtils;
+import io.github.robmoffat.support.Metrics;
 import io.github.robmoffat.world.PropsWorld;
+import io.github.robmoffat.world.SharedFixtures;
 
+import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
 
@@ -22,7 +46,11 @@ import io.cucumber.java.Scenario;
  */
 public class TestHooks {
 
+    private static Path largeJsonFile;
+
     private final PropsWorld world;
+    private final CountDownLatch sleeperInterrupted = new CountDownLatch(1);
+    private ThreadPoolExecutor rejectingPool;
 
     public TestHooks(PropsWorld world) {
         this.world = world;
@@ -31,47 +59,156 @@ public class TestHooks {
     @Before
     public void setup(Scenario scenario) {
         world.setScenario(scenario);
+        SharedFixtures.initialize(TestHooks::registerSharedFixtures);
+
+        // Per-scenario fixtures: single-use, mutable, or bound to this scenario's world
+        world.set("nameStream", Stream.of("alpha", "beta", "gamma"));
+        world.set("nameIterator", Arrays.asList("x", "y").iterator());
+        world.set("nativeIntArray", new int[] { 10, 20, 30 });
+        world.set("nativeStringArray", new String[] { "alpha", "beta", "gamma" });
+        world.set("nativeDoubleArray", new double[] { 1.0, 2.5, -3.0 });
+        world.set("nativeLongArray", new long[] { 9, 7, 7, 3 });
+        world.set("jsonResponse", json("{\"user\": {\"name\": \"Dana\", \"age\": 41, \"score\": 9.5,"
+            + " \"active\": true, \"manager\": null, \"tags\": [\"admin\", \"ops\"]},"
+            + " \"orders\": [{\"id\": 1, \"total\": 10.5, \"items\": [{\"sku\": \"A-1\"}]},"
+            + " {\"id\": 2, \"total\": 20, \"items\": []}]}"));
+        world.set("counterBurst", (Function<Object, Object>) name -> {
+            for (int i = 0; i < 1000; i++) {
+                world.counter(String.valueOf(name)).incrementAndGet();
+            }
+            return name;
+        });
+        world.set("worldWriter", (Function<Object, Object>) name -> {
+            for (int i = 0; i < 1000; i++) {
+                long n = world.counter(String.valueOf(name)).incrementAndGet();
+                world.set(name + "_" + n, n);
+            }
+            return name;
+        });
+        world.set("worldScanner", (BiFunction<Object, Object, Object>) (name, target) -> {
+            // Iterate over the world on this thread until the jobs writing to it are done
+            double until = Double.parseDouble(String.valueOf(target));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            int scans = 0;
+            while (System.nanoTime() < deadline) {
+                for (Map.Entry<String, Object> entry : world.entrySet()) {
+                    entry.getValue();
+                }
+                scans++;
+                Object count = world.get(String.valueOf(name));
+                if (count instanceof Number && ((Number) count).doubleValue() >= until) {
+                    break;
+                }
+            }
+            return scans;
+        });
+        world.set("clearWorld", (Runnable) world::clear);
+        world.set("worldKeys", (Supplier<Object>) () -> new ArrayList<>(world.keySet()));
+        world.set("readyLater", (Function<Object, Object>) name -> {
+            CompletableFuture.delayedExecutor(150, TimeUnit.MILLISECONDS)
+                .execute(() -> world.set(String.valueOf(name), "ready"));
+            return name;
+        });
+        world.set("eventsLater", (Function<Object, Object>) name -> {
+            List<Object> events = new CopyOnWriteArrayList<>();
+            world.set(String.valueOf(name), events);
+            for (int i = 1; i <= 3; i++) {
+                Map<String, Object> event = Map.of("seq", i, "type", "event-" + i);
+                CompletableFuture.delayedExecutor(40L * i, TimeUnit.MILLISECONDS).execute(() -> events.add(event));
+            }
+            return name;
+        });
+        world.set("sleeper", (Callable<Object>) () -> {
+            try {
+                Thread.sleep(30_000);
+                return "woke";
+            } catch (InterruptedException e) {
+                sleeperInterrupted.countDown();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Write {@code {"orders": [{"id": i, "customer": "customer-i", "lines": [{"sku": "sku-(i % 50)"}]}, ...]}}
+     * to a file under target/ the first time a scenario needs it, and return its path.
+     */
+    private static synchronized Path largeJsonFile(int orders) {
+        if (largeJsonFile != null) {
+            return largeJsonFile;
+        }
+        Path file = Paths.get("target", "large-orders.json");
+        try {
+            Files.createDirectories(file.getParent());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try (Writer out = Files.newBufferedWriter(file)) {
+            out.write("{\"orders\": [");
+            for (int i = 0; i < orders; i++) {
+                out.write(i == 0 ? "\n" : ",\n");
+                out.write("{\"id\": " + i + ", \"customer\": \"customer-" + i
+                    + "\", \"lines\": [{\"sku\": \"sku-" + (i % 50) + "\"}]}");
+            }
+            out.write("]}\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        largeJsonFile = file;
+        return file;
+    }
 
+    private static JsonNode json(String text) {
+        try {
+            return new ObjectMapper().readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Fixtures built once per JVM; every scenario's world reads through to them, so
+     * they have to be immutable. Mutable ones are set per scenario in {@link #setup}.
+     */
+    private static void registerSharedFixtures(Map<String, Object> fixtures) {
         // Shared fixtures for feature files
-        world.set("sampleArray", Arrays.asList(
+        fixtures.put("sampleArray", List.of(
             Map.of("name", "Alice", "value", 100),
             Map.of("name", "Bob", "value", 200)
         ));
-        world.set("sampleStringArray", Arrays.asList("one", "two", "three"));
-        world.set("sampleEmptyArray", Collections.emptyList());
-        world.set("sampleObject", Map.of("name", "John", "age", 30));
+        fixtures.put("sampleStringArray", List.of("one", "two", "three"));
+        fixtures.put("sampleEmptyArray", List.of());
+        fixtures.put("sampleObject", Map.of("name", "John", "age", 30));
 
-        world.set("singleArgFn", (Function<Object, CompletableFuture<Object>>)
+        fixtures.put("singleArgFn", (Function<Object, CompletableFuture<Object>>)
             arg -> CompletableFuture.completedFuture(arg));
-        world.set("twoArgFn", (BiFunction<Object, Object, CompletableFuture<Object>>)
+        fixtures.put("twoArgFn", (BiFunction<Object, Object, CompletableFuture<Object>>)
             (a, b) -> CompletableFuture.completedFuture(String.valueOf(a) + String.valueOf(b)));
-        world.set("threeArgConcatFn", (ThreeArgFunction)
+        fixtures.put("threeArgConcatFn", (ThreeArgFunction)
             (a, b, c) -> CompletableFuture.completedFuture(String.valueOf(a) + String.valueOf(b) + String.valueOf(c)));
-        world.set("fourArgConcatFn", (FourArgFunction)
+        fixtures.put("fourArgConcatFn", (FourArgFunction)
             (a, b, c, d) -> CompletableFuture.completedFuture(String.valueOf(a) + String.valueOf(b) + String.valueOf(c) + String.valueOf(d)));
 
-        world.set("errorThrowingFn", (Supplier<CompletableFuture<Object>>) () -> {
+        fixtures.put("errorThrowingFn", (Supplier<CompletableFuture<Object>>) () -> {
             throw new RuntimeException("Test error message");
         });
-        world.set("errorWithArgFn", (Function<Object, CompletableFuture<Object>>)
+        fixtures.put("errorWithArgFn", (Function<Object, CompletableFuture<Object>>)
             arg -> { throw new RuntimeException("Test error message"); });
-        world.set("errorWith2ArgsFn", (BiFunction<Object, Object, CompletableFuture<Object>>)
+        fixtures.put("errorWith2ArgsFn", (BiFunction<Object, Object, CompletableFuture<Object>>)
             (a, b) -> { throw new RuntimeException("Test error message"); });
-        world.set("errorWith3ArgsFn", (ThreeArgFunction)
+        fixtures.put("errorWith3ArgsFn", (ThreeArgFunction)
             (a, b, c) -> { throw new RuntimeException("Test error message"); });
-        world.set("errorWith4ArgsFn", (FourArgFunction)
+        fixtures.put("errorWith4ArgsFn", (FourArgFunction)
             (a, b, c, d) -> { throw new RuntimeException("Test error message"); });
+        fixtures.put("assertionFailingFn", (Supplier<CompletableFuture<Object>>) () -> {
+            throw new AssertionError("Test assertion message");
+        });
 
-        world.set("testCalculator", new TestCalculator());
+        fixtures.put("testCalculator", new TestCalculator());
 
-        Map<String, Object> level1 = new HashMap<>();
-        level1.put("level2", "deep-value");
-        Map<String, Object> nestedObject = new HashMap<>();
-        nestedObject.put("name", "parent");
-        nestedObject.put("level1", level1);
-        world.set("nestedObject", nestedObject);
+        fixtures.put("nestedObject", Map.of("name", "parent", "level1", Map.of("level2", "deep-value")));
 
-        world.set("arrayWithObjects", Arrays.asList(
+        fixtures.put("arrayWithObjects", List.of(
             Map.of("id", "1", "name", "first"),
             Map.of("id", "2", "name", "second"),
             Map.of("id", "3", "name", "third")
@@ -81,31 +218,133 @@ public class TestHooks {
         Map<String, Object> c = Map.of("c", d);
         Map<String, Object> b = Map.of("b", c);
         Map<String, Object> a = Map.of("a", b);
-        world.set("deeplyNested", a);
+        fixtures.put("deeplyNested", a);
 
-        world.set("userArray", Arrays.asList(
+        fixtures.put("userArray", List.of(
             Map.of("name", "Alice", "address", Map.of("city", "New York", "zip", "10001")),
             Map.of("name", "Bob", "address", Map.of("city", "Los Angeles", "zip", "90001"))
         ));
 
-        Map<String, Object> typedValues = new HashMap<>();
-        typedValues.put("count", 42);
-        typedValues.put("price", 9.99);
-        typedValues.put("active", true);
-        typedValues.put("deleted", false);
-        typedValues.put("label", "hello");
-        typedValues.put("nested", Map.of("score", 100, "enabled", true));
-        world.set("typedValues", typedValues);
+        fixtures.put("typedValues", Map.of(
+            "count", 42,
+            "price", 9.99,
+            "active", true,
+            "deleted", false,
+            "label", "hello",
+            "nested", Map.of("score", 100, "enabled", true)
+        ));
 
         // Java-specific fixtures for java-specific.feature
-        world.set("nativeIntArray", new int[] { 10, 20, 30 });
-        world.set("nativeStringArray", new String[] { "alpha", "beta", "gamma" });
-        world.set("integerValue", Integer.valueOf(42));
-        world.set("doubleValue", Double.valueOf(3.14));
+        fixtures.put("integerValue", Integer.valueOf(42));
+        fixtures.put("doubleValue", Double.valueOf(3.14));
+        fixtures.put("repeatedTags", List.of(Map.of("tag", "a"), Map.of("tag", "b"), Map.of("tag", "a")));
+        fixtures.put("mixedOnes", List.of(Map.of("n", "1.0"), Map.of("n", 1)));
+        List<Object> largeArray = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            largeArray.add(Map.of("id", i, "name", "item-" + i, "group", Map.of("code", "g" + (i % 7))));
+        }
+        fixtures.put("largeArray", Collections.unmodifiableList(largeArray));
+        fixtures.put("prices", List.of(5, 7.5, 7.5, 12L));
+        fixtures.put("lazyIterable", (Iterable<Object>) () -> IntStream.range(0, 1000)
+            .<Object>mapToObj(i -> Map.of("id", i, "name", "lazy-" + i)).iterator());
+        fixtures.put("beanProfile", new TestProfile("Carol", List.of("admin", "ops"), 7));
+        fixtures.put("callingThread", new CallingThread());
+        fixtures.put("expressionCacheHits", (Supplier<Object>) MatchingUtils::getExpressionCacheHits);
+        fixtures.put("expressionCacheMisses", (Supplier<Object>) MatchingUtils::getExpressionCacheMisses);
+        fixtures.put("resolvePlanCacheHits", (Supplier<Object>) MatchingUtils::getResolvePlanCacheHits);
+        fixtures.put("resolvePlanCacheMisses", (Supplier<Object>) MatchingUtils::getResolvePlanCacheMisses);
+        fixtures.put("internalCounters", (Supplier<Object>) () -> {
+            Map<String, Object> counters = new HashMap<>();
+            for (Metrics.Counter counter : Metrics.Counter.values()) {
+                counters.put(counter.name().toLowerCase(), Metrics.get(counter));
+            }
+            return counters;
+        });
+    }
+
+    @Before(value = "@concurrentWorld", order = 0)
+    public void useConcurrentWorld() {
+        world.useConcurrentProps();
+    }
+
+    @Before("@largeJson")
+    public void provideLargeJsonFile() {
+        world.set("largeJsonFile", largeJsonFile(100_000).toString());
+    }
+
+    @Before("@parallelMatching")
+    public void enableParallelMatching() {
+        System.setProperty("scs.matching.parallel", "true");
+        System.setProperty("scs.matching.parallelThreshold", "2");
+    }
+
+    @After("@parallelMatching")
+    public void disableParallelMatching() {
+        System.clearProperty("scs.matching.parallel");
+        System.clearProperty("scs.matching.parallelThreshold");
+    }
+
+    /**
+     * Runs after the library's hook has cancelled the jobs this scenario left running.
+     */
+    @After("@leaksJob")
+    public void checkLeakedJobWasInterrupted() throws InterruptedException {
+        if (!sleeperInterrupted.await(5, TimeUnit.SECONDS)) {
+            throw new AssertionError("The sleeper job was still running after the scenario ended");
+        }
+    }
+
+    @Before("@rejectingJobPool")
+    public void useRejectingJobPool() {
+        // one thread and no queue, so a second job is rejected while the first runs
+        rejectingPool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<>());
+        JobExecutor.get().use(rejectingPool);
+    }
+
+    @After("@rejectingJobPool")
+    public void restoreJobPoolAfterRejections() {
+        JobExecutor.get().configure();
+        rejectingPool.shutdownNow();
+    }
+
+    @Before("@boundedJobPool")
+    public void useBoundedJobPool() {
+        System.setProperty("scs.jobs.executor", "fixed");
+        System.setProperty("scs.jobs.threads", "2");
+        JobExecutor.get().configure();
+    }
+
+    @After("@boundedJobPool")
+    public void restoreJobPool() {
+        System.clearProperty("scs.jobs.executor");
+        System.clearProperty("scs.jobs.threads");
+        JobExecutor.get().configure();
+    }
+
+    public static class TestProfile {
+        private final String name;
+        private final List<String> tags;
+        private final int level;
+        public TestProfile(String name, List<String> tags, int level) {
+            this.name = name;
+            this.tags = tags;
+            this.level = level;
+        }
+        public String getName() { return name; }
+        public List<String> getTags() { return tags; }
+        public int getLevel() { return level; }
+        public boolean isActive() { return true; }
+    }
+
+    /**
+     * A bean whose {@code name} is the name of the thread reading it.
+     */
+    public static class CallingThread {
+        public String getName() { return Thread.currentThread().getName(); }
     }
 
     public static class TestCalculator {
-        private int value = 42;
+        private final int value = 42;
         public int GetValue() { return value; }
         public int Add(Number n) { return value + n.intValue(); }
         public int Multiply(Number a, Number b) { return a.intValue() * b.intValue(); }